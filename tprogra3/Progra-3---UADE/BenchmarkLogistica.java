@@ -0,0 +1,189 @@
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+
+// Mide cada etapa sobre una instancia generada con GeneradorInstancias:
+// carga de rutas, Dijkstra, matriz de costos y las variantes del optimizador.
+// Para cada una informa operaciones por segundo, bytes reservados por operación
+// (contador de la JVM por hilo) y, en el optimizador, nodos explorados por segundo.
+// Termina con código 1 si el modo heurístico resulta más lento que el exacto (con un 10% de
+// margen: cuando exploran los mismos nodos la diferencia es solo ruido de la medición).
+// Con Maven, el módulo benchmarks mide las mismas etapas con JMH; esta clase queda para
+// correr sin dependencias, con javac y java solos.
+//
+// Uso: java BenchmarkLogistica [--nodos=N] [--densidad=D] [--clientes=C] [--centros=K]
+//                              [--iteraciones=I] [--calentamiento=W] [--semilla=S]
+//                              [--capacidad=H]   (holgura de capacidad; 0 = centros sin capacidad)
+public class BenchmarkLogistica {
+    private final int iteraciones;
+    private final int calentamiento;
+
+    private BenchmarkLogistica(int iteraciones, int calentamiento) {
+        this.iteraciones = iteraciones;
+        this.calentamiento = calentamiento;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nodos;
+        double densidad;
+        int clientes;
+        int centros;
+        long semilla;
+        double holgura;
+        BenchmarkLogistica benchmark;
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args);
+            nodos = opciones.entero("nodos", 20000, 2);
+            densidad = opciones.decimal("densidad", 6, 1);
+            clientes = opciones.entero("clientes", 30, 1);
+            centros = opciones.entero("centros", 8, 1);
+            semilla = opciones.enteroLargo("semilla", 42);
+            holgura = opciones.decimal("capacidad", 0, 0);
+            benchmark = new BenchmarkLogistica(opciones.entero("iteraciones", 10, 1),
+                                               opciones.entero("calentamiento", 3, 0));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        GeneradorInstancias generador = new GeneradorInstancias(nodos, densidad, clientes, centros, semilla, holgura);
+        Path directorio = Files.createTempDirectory("benchmark-logistica");
+        Path rutas = directorio.resolve("rutas.txt");
+        Path clientesYCentros = directorio.resolve("clientesYCentros.txt");
+        generador.escribirRutas(rutas);
+        generador.escribirClientesYCentros(clientesYCentros);
+
+        System.out.printf("Instancia: %d nodos, densidad %.1f, %d clientes, %d centros%n%n",
+                          nodos, densidad, clientes, centros);
+        System.out.printf("%-28s %14s %16s %18s%n", "Etapa", "ops/s", "bytes/op", "nodos/s");
+
+        boolean lento = false;
+        try {
+            GrafoLogistica grafo = new GrafoLogistica(nodos);
+            grafo.setSilencioso(true);
+            grafo.cargarRutas(rutas.toString());
+
+            benchmark.medir("cargarRutas", () -> {
+                GrafoLogistica nuevo = new GrafoLogistica(nodos);
+                nuevo.setSilencioso(true);
+                nuevo.cargarRutas(rutas.toString());
+                return 0;
+            });
+
+            MotorDijkstra motor = new MotorDijkstra(grafo);
+            int[] distancias = new int[nodos];
+            int[] fuentes = generador.getCentros();
+            benchmark.medir("MotorDijkstra.calcular", () -> {
+                for (int centro : fuentes) {
+                    motor.calcular(centro, distancias);
+                }
+                return 0;
+            }, fuentes.length);
+            int[] clientesObjetivo = generador.getClientes();
+            int[] costosObjetivo = new int[clientesObjetivo.length];
+            benchmark.medir("MotorDijkstra.calcularHacia", () -> {
+                for (int centro : fuentes) {
+                    motor.calcularHacia(centro, clientesObjetivo, costosObjetivo);
+                }
+                return 0;
+            }, fuentes.length);
+
+            MatrizCostos[] matriz = new MatrizCostos[1];
+            CostMatrixBuilder constructor = new CostMatrixBuilder(grafo, generador.getCentros(), generador.getClientes());
+            benchmark.medir("CostMatrixBuilder", () -> {
+                matriz[0] = constructor.construir();
+                return 0;
+            });
+
+            DistributionCenterOptimization optimizador = new DistributionCenterOptimization();
+            optimizador.setSilencioso(true);
+            optimizador.inicializar(clientesYCentros.toString(), matriz[0]);
+            double exacto = benchmark.medir("optimizar", () -> {
+                optimizador.optimizar();
+                return optimizador.getNodosExplorados();
+            });
+            benchmark.medir("optimizarParalelo", () -> {
+                optimizador.optimizarParalelo();
+                return optimizador.getNodosExplorados();
+            });
+            optimizador.setModoHeuristico(true);
+            double heuristico = benchmark.medir("optimizar (heurístico)", () -> {
+                optimizador.optimizar();
+                return optimizador.getNodosExplorados();
+            });
+            optimizador.setModoHeuristico(false);
+            if (heuristico < exacto * 0.9) {
+                System.out.printf("El modo heurístico (%.1f ops/s) fue más lento que el exacto (%.1f ops/s)%n",
+                                  heuristico, exacto);
+                lento = true;
+            }
+            for (EstrategiaRamificacion estrategia : EstrategiaRamificacion.values()) {
+                if (estrategia == EstrategiaRamificacion.ORDEN_ENTRADA) {
+                    continue;
+                }
+                optimizador.setEstrategiaRamificacion(estrategia);
+                benchmark.medir("optimizar (" + estrategia + ")", () -> {
+                    optimizador.optimizar();
+                    return optimizador.getNodosExplorados();
+                });
+            }
+            optimizador.setEstrategiaRamificacion(EstrategiaRamificacion.ORDEN_ENTRADA);
+            if (centros <= OptimizadorSubconjuntos.MAX_CENTROS && holgura == 0) {
+                benchmark.medir("optimizarPorSubconjuntos", () -> {
+                    optimizador.optimizarPorSubconjuntos();
+                    return 0;
+                });
+            }
+        } finally {
+            Files.deleteIfExists(rutas);
+            Files.deleteIfExists(clientesYCentros);
+            Files.deleteIfExists(directorio);
+        }
+        if (lento) {
+            System.exit(1);
+        }
+    }
+
+    private interface Operacion {
+        // Devuelve los nodos explorados (0 si no aplica)
+        long ejecutar() throws Exception;
+    }
+
+    private double medir(String nombre, Operacion operacion) throws Exception {
+        return medir(nombre, operacion, 1);
+    }
+
+    // 'repeticiones' es cuántas operaciones lógicas hace cada llamada (por ejemplo, un Dijkstra por centro)
+    // Devuelve las operaciones por segundo
+    private double medir(String nombre, Operacion operacion, int repeticiones) throws Exception {
+        long nanos = 0;
+        long bytes = 0;
+        long nodos = 0;
+        for (int i = 0; i < calentamiento; i++) {
+            operacion.ejecutar();
+        }
+        for (int i = 0; i < iteraciones; i++) {
+            long bytesAntes = bytesReservadosPorHilo();
+            long inicio = System.nanoTime();
+            nodos += operacion.ejecutar();
+            nanos += System.nanoTime() - inicio;
+            bytes += bytesReservadosPorHilo() - bytesAntes;
+        }
+
+        double segundos = nanos / 1e9;
+        long operaciones = (long) iteraciones * repeticiones;
+        String nodosPorSegundo = nodos > 0 ? String.format("%,.0f", nodos / segundos) : "-";
+        System.out.printf("%-28s %,14.1f %,16d %18s%n",
+                          nombre, operaciones / segundos, bytes / operaciones, nodosPorSegundo);
+        return operaciones / segundos;
+    }
+
+    // Solo cuenta lo que reserva el hilo que mide; en las variantes paralelas es una cota inferior
+    private static long bytesReservadosPorHilo() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) hilos).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
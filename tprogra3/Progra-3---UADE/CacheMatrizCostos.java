@@ -0,0 +1,106 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.*;
+
+// Guarda en disco la matriz de costos calculada a partir de un archivo de rutas.
+// La clave es un SHA-256 del contenido del archivo (más los nodos pedidos), así que
+// mientras la red no cambie se evita cargar el grafo y correr Dijkstra.
+//
+// Formato del archivo (enteros de 4 bytes, big endian):
+//   MAGICO, VERSION, filas, columnas, costos por filas
+// Es el mismo de MatrizCostosMapeada: una matriz leída de la caché queda mapeada, fuera del heap.
+public class CacheMatrizCostos {
+    private static final int ENTEROS_CABECERA = MatrizCostosMapeada.ENTEROS_CABECERA;
+
+    private final Path directorio;
+
+    public CacheMatrizCostos(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    // Devuelve la matriz [origen][destino] para las rutas dadas, calculándola solo si no estaba guardada
+    public MatrizCostos obtener(Path archivoRutas, int numNodos, int[] origenes, int[] destinos) throws IOException {
+        Path archivo = directorio.resolve("costos-" + calcularClave(archivoRutas, numNodos, origenes, destinos) + ".bin");
+        if (Files.isRegularFile(archivo)) {
+            MatrizCostos matriz = cargar(archivo);
+            if (matriz != null && matriz.getFilas() == origenes.length && matriz.getColumnas() == destinos.length) {
+                System.out.println("Costos leídos de la caché: " + archivo.getFileName());
+                return matriz;
+            }
+        }
+
+        GrafoLogistica grafo = new GrafoLogistica(numNodos);
+        grafo.cargarRutas(archivoRutas.toString());
+        MatrizCostos matriz = new CostMatrixBuilder(grafo, origenes, destinos).construir();
+        guardar(archivo, matriz);
+        return matriz;
+    }
+
+    // Se mapea el archivo sin copiarlo al heap; null si no tiene el formato esperado
+    static MatrizCostos cargar(Path archivo) throws IOException {
+        return MatrizCostos.abrirMapeada(archivo);
+    }
+
+    // Se escribe en un temporal y se renombra, así otro proceso nunca lee un archivo a medias.
+    // Se escribe fila por fila, así que la matriz puede ser más grande que el heap
+    static void guardar(Path archivo, MatrizCostos matriz) throws IOException {
+        Files.createDirectories(archivo.getParent());
+        Path temporal = Files.createTempFile(archivo.getParent(), "costos-", ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Math.max(ENTEROS_CABECERA, matriz.getColumnas()) * 4);
+                buffer.asIntBuffer().put(MatrizCostosMapeada.MAGICO).put(MatrizCostosMapeada.VERSION)
+                                    .put(matriz.getFilas()).put(matriz.getColumnas());
+                escribir(canal, buffer, ENTEROS_CABECERA);
+                int[] fila = new int[matriz.getColumnas()];
+                for (int i = 0; i < matriz.getFilas(); i++) {
+                    matriz.getFila(i, fila);
+                    buffer.clear();
+                    buffer.asIntBuffer().put(fila);
+                    escribir(canal, buffer, fila.length);
+                }
+                canal.force(false);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static void escribir(FileChannel canal, ByteBuffer buffer, int enteros) throws IOException {
+        buffer.position(0).limit(enteros * 4);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    private static String calcularClave(Path archivoRutas, int numNodos, int[] origenes, int[] destinos) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+
+        try (InputStream entrada = Files.newInputStream(archivoRutas)) {
+            byte[] bloque = new byte[1 << 16];
+            int leidos;
+            while ((leidos = entrada.read(bloque)) != -1) {
+                digest.update(bloque, 0, leidos);
+            }
+        }
+
+        ByteBuffer nodos = ByteBuffer.allocate((3 + origenes.length + destinos.length) * 4);
+        nodos.putInt(numNodos).putInt(origenes.length).putInt(destinos.length);
+        nodos.asIntBuffer().put(origenes).put(destinos);
+        digest.update(nodos.array());
+
+        StringBuilder clave = new StringBuilder();
+        for (byte b : digest.digest()) {
+            clave.append(String.format("%02x", b));
+        }
+        return clave.toString();
+    }
+}
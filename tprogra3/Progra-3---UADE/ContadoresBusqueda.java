@@ -0,0 +1,26 @@
+import java.util.Arrays;
+
+// Contadores sin sincronizar que usa un solo hilo durante la búsqueda
+class ContadoresBusqueda {
+    long nodos;
+    long podasCota;
+    long podasViabilidad;
+    long podasInalcanzable;
+    long podasCapacidad;
+    long podasDominancia;
+    final long[] nodosPorProfundidad;
+
+    ContadoresBusqueda(int profundidadMaxima) {
+        nodosPorProfundidad = new long[profundidadMaxima + 1];
+    }
+
+    void reiniciar() {
+        nodos = 0;
+        podasCota = 0;
+        podasViabilidad = 0;
+        podasInalcanzable = 0;
+        podasCapacidad = 0;
+        podasDominancia = 0;
+        Arrays.fill(nodosPorProfundidad, 0);
+    }
+}
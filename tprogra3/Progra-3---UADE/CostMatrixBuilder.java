@@ -0,0 +1,93 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Calcula la matriz [origen][destino] de costos mínimos con un Dijkstra por origen.
+// Se lanza una tarea por núcleo; cada una tiene su propio motor y arreglo de trabajo,
+// toma orígenes de un contador compartido y escribe cada fila directamente en la matriz.
+// Nada queda asociado a los hilos del pool al terminar. Cada Dijkstra corta cuando
+// alcanzó todos los destinos.
+public class CostMatrixBuilder {
+    private final GrafoLogistica grafo;
+    private final int[] origenes;
+    private final int[] destinos;
+
+    public CostMatrixBuilder(GrafoLogistica grafo, int[] origenes, int[] destinos) {
+        for (int nodo : origenes) {
+            Objects.checkIndex(nodo, grafo.numNodos);
+        }
+        for (int nodo : destinos) {
+            Objects.checkIndex(nodo, grafo.numNodos);
+        }
+        this.grafo = grafo;
+        this.origenes = origenes.clone();
+        this.destinos = destinos.clone();
+    }
+
+    // Nodos consecutivos [desde, desde + cantidad), como los IDs de clientes y centros en los archivos
+    public static int[] rango(int desde, int cantidad) {
+        int[] nodos = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            nodos[i] = desde + i;
+        }
+        return nodos;
+    }
+
+    // Usa un pool propio con un hilo por núcleo. El trabajo es de CPU puro, así que
+    // más hilos (o hilos virtuales) no ayudan; se puede pasar otro executor si se quiere
+    public MatrizCostos construir() {
+        return construir(MatrizCostos.enMemoria(origenes.length, destinos.length));
+    }
+
+    // Escribe en una matriz ya creada, por ejemplo una mapeada a archivo cuando no entra en el heap
+    public MatrizCostos construir(MatrizCostos destino) {
+        int hilos = Math.min(Runtime.getRuntime().availableProcessors(), Math.max(1, origenes.length));
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            return construir(pool, destino);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public MatrizCostos construir(ExecutorService pool) {
+        return construir(pool, MatrizCostos.enMemoria(origenes.length, destinos.length));
+    }
+
+    public MatrizCostos construir(ExecutorService pool, MatrizCostos matriz) {
+        if (matriz.getFilas() != origenes.length || matriz.getColumnas() != destinos.length) {
+            throw new IllegalArgumentException("La matriz debe ser de " + origenes.length + "x" + destinos.length);
+        }
+        int cantidad = Math.min(Runtime.getRuntime().availableProcessors(), origenes.length);
+        AtomicInteger siguiente = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            tareas.add(pool.submit(() -> calcularFilas(matriz, siguiente)));
+        }
+
+        try {
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tareas.forEach(tarea -> tarea.cancel(true));
+            throw new IllegalStateException("Cálculo de costos interrumpido", e);
+        } catch (ExecutionException e) {
+            tareas.forEach(tarea -> tarea.cancel(true));
+            throw new IllegalStateException("Error al calcular costos: " + e.getCause().getMessage(), e.getCause());
+        }
+        return matriz;
+    }
+
+    // Una tarea deja de tomar filas si la cancelan porque falló otra
+    private void calcularFilas(MatrizCostos matriz, AtomicInteger siguiente) {
+        MotorDijkstra motor = new MotorDijkstra(grafo);
+        int[] costoMinimo = new int[destinos.length];
+        int fila;
+        while ((fila = siguiente.getAndIncrement()) < origenes.length && !Thread.currentThread().isInterrupted()) {
+            motor.calcularHacia(origenes[fila], destinos, costoMinimo);
+            matriz.setFila(fila, costoMinimo);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+// Cota que se mantiene incrementalmente mientras avanza la búsqueda
+interface CotaInferior {
+    void asignar(int cliente, int centro, boolean abreCentro);
+
+    void desasignar(int cliente, int centro, boolean cierraCentro);
+
+    // Decisiones de la ramificación por centros: abrir un centro antes de asignarle
+    // clientes (su costo fijo ya se pagó) o descartarlo para todo el subárbol
+    void fijarCentro(int centro, boolean abierto);
+
+    void liberarCentro(int centro, boolean abierto);
+
+    // Cota del costo que falta: clientes sin asignar más los fijos que todavía haya que pagar
+    int valor();
+
+    CotaInferior copiar();
+}
@@ -0,0 +1,282 @@
+// Cota por relajación lagrangiana del problema de localización sin capacidades.
+// Se relaja la restricción "cada cliente va a exactamente un centro" con un
+// multiplicador lambda por cliente:
+//   L(lambda) = suma(lambda_i) + suma_j min(0, f_j + suma_i min(0, c_ij - lambda_i))
+// Los multiplicadores se ajustan una sola vez por subgradiente y después, en cada
+// nodo, solo se restan los términos del cliente que se asigna (O(numCentros)).
+class CotaLagrangiana implements CotaInferior {
+    private static final int MAX_ITERACIONES = 300;
+    private static final int ITERACIONES_SIN_MEJORA = 10;
+
+    private final InstanciaLogistica instancia;
+    private final long[] lambdas;
+    // suma sobre los clientes sin asignar de min(0, c_ij - lambda_i), por centro
+    private final long[] reducidosPorCentro;
+    private final boolean[] centrosAbiertos;
+    private final boolean[] centrosDescartados;
+    private long sumaLambdas;
+    private int numAbiertos;
+
+    CotaLagrangiana(InstanciaLogistica instancia) {
+        this.instancia = instancia;
+        this.lambdas = calcularMultiplicadores(instancia);
+        this.reducidosPorCentro = new long[instancia.getNumCentros()];
+        this.centrosAbiertos = new boolean[instancia.getNumCentros()];
+        this.centrosDescartados = new boolean[instancia.getNumCentros()];
+
+        for (int cliente = 0; cliente < instancia.getNumClientes(); cliente++) {
+            sumaLambdas += lambdas[cliente];
+            for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+                reducidosPorCentro[centro] += costoReducido(cliente, centro);
+            }
+        }
+    }
+
+    private CotaLagrangiana(CotaLagrangiana otra) {
+        this.instancia = otra.instancia;
+        this.lambdas = otra.lambdas;
+        this.reducidosPorCentro = otra.reducidosPorCentro.clone();
+        this.centrosAbiertos = otra.centrosAbiertos.clone();
+        this.centrosDescartados = otra.centrosDescartados.clone();
+        this.sumaLambdas = otra.sumaLambdas;
+        this.numAbiertos = otra.numAbiertos;
+    }
+
+    @Override
+    public void asignar(int cliente, int centro, boolean abreCentro) {
+        sumaLambdas -= lambdas[cliente];
+        for (int j = 0; j < reducidosPorCentro.length; j++) {
+            reducidosPorCentro[j] -= costoReducido(cliente, j);
+        }
+        if (abreCentro) {
+            centrosAbiertos[centro] = true;
+            numAbiertos++;
+        }
+    }
+
+    @Override
+    public void desasignar(int cliente, int centro, boolean cierraCentro) {
+        sumaLambdas += lambdas[cliente];
+        for (int j = 0; j < reducidosPorCentro.length; j++) {
+            reducidosPorCentro[j] += costoReducido(cliente, j);
+        }
+        if (cierraCentro) {
+            centrosAbiertos[centro] = false;
+            numAbiertos--;
+        }
+    }
+
+    @Override
+    public void fijarCentro(int centro, boolean abierto) {
+        if (abierto) {
+            centrosAbiertos[centro] = true;
+            numAbiertos++;
+        } else {
+            centrosDescartados[centro] = true;
+        }
+    }
+
+    @Override
+    public void liberarCentro(int centro, boolean abierto) {
+        if (abierto) {
+            centrosAbiertos[centro] = false;
+            numAbiertos--;
+        } else {
+            centrosDescartados[centro] = false;
+        }
+    }
+
+    // Los centros descartados no aportan: la relajación solo puede usar los demás
+    @Override
+    public int valor() {
+        long cota = sumaLambdas;
+        long menorReducido = Long.MAX_VALUE;
+        boolean algunoConviene = false;
+        for (int centro = 0; centro < reducidosPorCentro.length; centro++) {
+            if (centrosDescartados[centro]) {
+                continue;
+            }
+            // Un centro ya abierto no vuelve a pagar su costo fijo
+            long reducido = reducidosPorCentro[centro] + (centrosAbiertos[centro] ? 0 : instancia.getCostoFijo(centro));
+            if (reducido < 0) {
+                cota += reducido;
+                algunoConviene = true;
+            }
+            menorReducido = Math.min(menorReducido, reducido);
+        }
+        // Si no hay centros abiertos hay que abrir al menos uno
+        if (numAbiertos == 0 && !algunoConviene) {
+            if (menorReducido == Long.MAX_VALUE) {
+                return Integer.MAX_VALUE;   // no queda ningún centro posible
+            }
+            cota += menorReducido;
+        }
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, cota));
+    }
+
+    @Override
+    public CotaInferior copiar() {
+        return new CotaLagrangiana(this);
+    }
+
+    private long costoReducido(int cliente, int centro) {
+        int costo = instancia.costoAsignacion(cliente, centro);
+        if (costo == InstanciaLogistica.INALCANZABLE) {
+            return 0;
+        }
+        return Math.min(0, costo - lambdas[cliente]);
+    }
+
+    // Optimización por subgradiente de L(lambda). Se arranca de lambda_i = costo mínimo
+    // del cliente (la cota simple) y se devuelven los mejores multiplicadores enteros,
+    // así la cota se actualiza en cada nodo sin errores de redondeo
+    private static long[] calcularMultiplicadores(InstanciaLogistica instancia) {
+        int numClientes = instancia.getNumClientes();
+        int numCentros = instancia.getNumCentros();
+
+        double[] lambda = new double[numClientes];
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            int costoMinimo = InstanciaLogistica.INALCANZABLE;
+            for (int centro = 0; centro < numCentros; centro++) {
+                costoMinimo = Math.min(costoMinimo, instancia.costoAsignacion(cliente, centro));
+            }
+            lambda[cliente] = costoMinimo;
+        }
+
+        long[] mejores = redondear(lambda);
+        long mejorCota = evaluar(instancia, mejores);
+        long costoSuperior = cotaSuperior(instancia);
+        if (costoSuperior == Long.MAX_VALUE) {
+            return mejores;
+        }
+
+        double paso = 2.0;
+        int sinMejora = 0;
+        double[] subgradiente = new double[numClientes];
+        boolean[] abiertos = new boolean[numCentros];
+
+        for (int iteracion = 0; iteracion < MAX_ITERACIONES && paso > 1e-4; iteracion++) {
+            // Resuelve la relajación: abre los centros con costo reducido negativo
+            double valor = 0;
+            double menorReducido = Double.MAX_VALUE;
+            int centroMenor = -1;
+            for (int centro = 0; centro < numCentros; centro++) {
+                double reducido = instancia.getCostoFijo(centro);
+                for (int cliente = 0; cliente < numClientes; cliente++) {
+                    int costo = instancia.costoAsignacion(cliente, centro);
+                    if (costo != InstanciaLogistica.INALCANZABLE && costo < lambda[cliente]) {
+                        reducido += costo - lambda[cliente];
+                    }
+                }
+                abiertos[centro] = reducido < 0;
+                if (abiertos[centro]) {
+                    valor += reducido;
+                }
+                if (reducido < menorReducido) {
+                    menorReducido = reducido;
+                    centroMenor = centro;
+                }
+            }
+            if (menorReducido >= 0 && centroMenor >= 0) {
+                abiertos[centroMenor] = true;
+                valor += menorReducido;
+            }
+
+            double normaCuadrada = 0;
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                valor += lambda[cliente];
+                int asignaciones = 0;
+                for (int centro = 0; centro < numCentros; centro++) {
+                    int costo = instancia.costoAsignacion(cliente, centro);
+                    if (abiertos[centro] && costo != InstanciaLogistica.INALCANZABLE && costo < lambda[cliente]) {
+                        asignaciones++;
+                    }
+                }
+                subgradiente[cliente] = 1 - asignaciones;
+                normaCuadrada += subgradiente[cliente] * subgradiente[cliente];
+            }
+            if (normaCuadrada == 0) {
+                break;
+            }
+
+            long[] candidatos = redondear(lambda);
+            long cota = evaluar(instancia, candidatos);
+            if (cota > mejorCota) {
+                mejorCota = cota;
+                mejores = candidatos;
+                sinMejora = 0;
+            } else if (++sinMejora >= ITERACIONES_SIN_MEJORA) {
+                paso /= 2;
+                sinMejora = 0;
+            }
+
+            double t = paso * Math.max(1.0, costoSuperior - valor) / normaCuadrada;
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                lambda[cliente] += t * subgradiente[cliente];
+            }
+        }
+
+        long[] finales = redondear(lambda);
+        return evaluar(instancia, finales) > mejorCota ? finales : mejores;
+    }
+
+    private static long[] redondear(double[] lambda) {
+        long[] enteros = new long[lambda.length];
+        for (int i = 0; i < lambda.length; i++) {
+            enteros[i] = Math.round(lambda[i]);
+        }
+        return enteros;
+    }
+
+    // L(lambda) exacto en la raíz, con la restricción de abrir al menos un centro
+    private static long evaluar(InstanciaLogistica instancia, long[] lambdas) {
+        long cota = 0;
+        for (long lambda : lambdas) {
+            cota += lambda;
+        }
+        long menorReducido = Long.MAX_VALUE;
+        boolean algunoConviene = false;
+        for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+            long reducido = instancia.getCostoFijo(centro);
+            for (int cliente = 0; cliente < lambdas.length; cliente++) {
+                int costo = instancia.costoAsignacion(cliente, centro);
+                if (costo != InstanciaLogistica.INALCANZABLE) {
+                    reducido += Math.min(0, costo - lambdas[cliente]);
+                }
+            }
+            if (reducido < 0) {
+                cota += reducido;
+                algunoConviene = true;
+            }
+            menorReducido = Math.min(menorReducido, reducido);
+        }
+        return algunoConviene ? cota : cota + menorReducido;
+    }
+
+    // Costo de una solución factible para dimensionar el paso: el mejor entre abrir
+    // un único centro o abrir todos y mandar cada cliente al más barato
+    private static long cotaSuperior(InstanciaLogistica instancia) {
+        long mejor = Long.MAX_VALUE;
+        for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+            long costo = instancia.getCostoFijo(centro);
+            for (int cliente = 0; cliente < instancia.getNumClientes() && costo != Long.MAX_VALUE; cliente++) {
+                int asignacion = instancia.costoAsignacion(cliente, centro);
+                costo = asignacion == InstanciaLogistica.INALCANZABLE ? Long.MAX_VALUE : costo + asignacion;
+            }
+            mejor = Math.min(mejor, costo);
+        }
+
+        long todos = 0;
+        for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+            todos += instancia.getCostoFijo(centro);
+        }
+        for (int cliente = 0; cliente < instancia.getNumClientes() && todos != Long.MAX_VALUE; cliente++) {
+            int costoMinimo = InstanciaLogistica.INALCANZABLE;
+            for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+                costoMinimo = Math.min(costoMinimo, instancia.costoAsignacion(cliente, centro));
+            }
+            todos = costoMinimo == InstanciaLogistica.INALCANZABLE ? Long.MAX_VALUE : todos + costoMinimo;
+        }
+        return Math.min(mejor, todos);
+    }
+}
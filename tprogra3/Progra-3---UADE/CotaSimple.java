@@ -0,0 +1,76 @@
+// Cada cliente restante al menor costo posible, más el menor costo fijo
+// mientras no haya ningún centro abierto. La suma se lleva en long (un cliente sin centro
+// alcanzable aporta INALCANZABLE) y se satura al devolverla, como en CotaLagrangiana
+class CotaSimple implements CotaInferior {
+    private final int[] cotasPorCliente;   // costo mínimo de asignación de cada cliente
+    private final int costoFijoMinimo;
+    private long cotaRestante;
+    private int centrosAbiertos;
+
+    CotaSimple(InstanciaLogistica instancia) {
+        cotasPorCliente = new int[instancia.getNumClientes()];
+        for (int cliente = 0; cliente < cotasPorCliente.length; cliente++) {
+            int costoMinimo = InstanciaLogistica.INALCANZABLE;
+            for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+                costoMinimo = Math.min(costoMinimo, instancia.costoAsignacion(cliente, centro));
+            }
+            cotasPorCliente[cliente] = costoMinimo;
+            cotaRestante += costoMinimo;
+        }
+
+        int fijoMinimo = Integer.MAX_VALUE;
+        for (int centro = 0; centro < instancia.getNumCentros(); centro++) {
+            fijoMinimo = Math.min(fijoMinimo, instancia.getCostoFijo(centro));
+        }
+        costoFijoMinimo = fijoMinimo;
+    }
+
+    private CotaSimple(CotaSimple otra) {
+        cotasPorCliente = otra.cotasPorCliente;
+        costoFijoMinimo = otra.costoFijoMinimo;
+        cotaRestante = otra.cotaRestante;
+        centrosAbiertos = otra.centrosAbiertos;
+    }
+
+    @Override
+    public void asignar(int cliente, int centro, boolean abreCentro) {
+        cotaRestante -= cotasPorCliente[cliente];
+        if (abreCentro) {
+            centrosAbiertos++;
+        }
+    }
+
+    @Override
+    public void desasignar(int cliente, int centro, boolean cierraCentro) {
+        cotaRestante += cotasPorCliente[cliente];
+        if (cierraCentro) {
+            centrosAbiertos--;
+        }
+    }
+
+    // Un centro descartado no cambia la cota: el mínimo de cada cliente sigue siendo válido
+    @Override
+    public void fijarCentro(int centro, boolean abierto) {
+        if (abierto) {
+            centrosAbiertos++;
+        }
+    }
+
+    @Override
+    public void liberarCentro(int centro, boolean abierto) {
+        if (abierto) {
+            centrosAbiertos--;
+        }
+    }
+
+    @Override
+    public int valor() {
+        long cota = centrosAbiertos > 0 ? cotaRestante : cotaRestante + costoFijoMinimo;
+        return (int) Math.min(Integer.MAX_VALUE, cota);
+    }
+
+    @Override
+    public CotaInferior copiar() {
+        return new CotaSimple(this);
+    }
+}
@@ -0,0 +1,236 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+// Matriz de costos mínimos que se mantiene al día cuando cambia el costo de una ruta,
+// sin volver a correr Dijkstra desde cada origen. Guarda la distancia de cada origen
+// a todos los nodos y, ante un cambio en la ruta (u, v), repara solo lo afectado:
+//  - Si la ruta se abarata, propaga la mejora desde v como un Dijkstra acotado.
+//  - Si se encarece y era parte de un camino mínimo (dist[u] + costo == dist[v]), los
+//    únicos nodos que pueden empeorar son los alcanzables desde v por aristas ajustadas.
+//    Se recalculan solo esos, arrancando desde sus vecinos no afectados.
+// Para poder reparar guarda la distancia de cada origen a todos los nodos del grafo, no solo
+// a los destinos: ocupa 4 * orígenes * nodos bytes (30 orígenes sobre un millón de nodos son
+// unos 120 MB, aparte de la matriz). Con muchos orígenes sobre un grafo grande conviene volver
+// a armar la matriz con CostMatrixBuilder en lugar de mantenerla al día.
+// No es seguro entre hilos, igual que modificar el grafo.
+public class DistanciasDinamicas {
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    // Recibe cada celda de la matriz que cambió
+    public interface CambioCosto {
+        void cambiar(int fila, int columna, int costo);
+    }
+
+    private final GrafoLogistica grafo;
+    private final int[] origenes;
+    // Columnas de cada nodo: columnasDeNodo[inicioColumnas[nodo] .. inicioColumnas[nodo + 1]).
+    // Un nodo puede repetirse en destinos y entonces tiene varias columnas
+    private final int[] inicioColumnas;
+    private final int[] columnasDeNodo;
+    private final int[][] distancias;    // [fila][nodo]: orígenes * nodos enteros, ver arriba
+    private final MatrizCostos matriz;
+
+    // Aristas que entran a cada nodo (índices del CSR del grafo), para el caso que se encarece
+    private int[] iniciosEntrada;
+    private int[] aristasEntrada;
+    private int[] origenArista;
+    private boolean indiceInvalido = true;
+
+    private final MonticuloIndexado monticulo;
+    private final int[] afectados;
+    private final int[] distanciasPrevias;
+    private final boolean[] esAfectado;
+
+    public DistanciasDinamicas(GrafoLogistica grafo, int[] origenes, int[] destinos) {
+        this.grafo = grafo;
+        this.origenes = origenes.clone();
+        this.inicioColumnas = new int[grafo.numNodos + 1];
+        for (int nodo : destinos) {
+            inicioColumnas[Objects.checkIndex(nodo, grafo.numNodos) + 1]++;
+        }
+        for (int nodo = 0; nodo < grafo.numNodos; nodo++) {
+            inicioColumnas[nodo + 1] += inicioColumnas[nodo];
+        }
+        this.columnasDeNodo = new int[destinos.length];
+        int[] siguiente = Arrays.copyOf(inicioColumnas, grafo.numNodos);
+        for (int columna = 0; columna < destinos.length; columna++) {
+            columnasDeNodo[siguiente[destinos[columna]]++] = columna;
+        }
+
+        MotorDijkstra motor = new MotorDijkstra(grafo);
+        this.distancias = new int[origenes.length][];
+        this.matriz = MatrizCostos.enMemoria(origenes.length, destinos.length);
+        for (int fila = 0; fila < origenes.length; fila++) {
+            distancias[fila] = motor.calcular(origenes[fila]);
+            matriz.setFila(fila, distancias[fila], destinos);
+        }
+
+        this.monticulo = new MonticuloIndexado(grafo.numNodos);
+        this.afectados = new int[grafo.numNodos];
+        this.distanciasPrevias = new int[grafo.numNodos];
+        this.esAfectado = new boolean[grafo.numNodos];
+    }
+
+    // Matriz [origen][destino] actual; se modifica en cada actualización
+    public MatrizCostos getMatriz() {
+        return matriz;
+    }
+
+    // Cambia (o agrega) la ruta y repara las distancias de todos los orígenes. Con rutas
+    // paralelas cambia la más barata, como GrafoLogistica.actualizarCostoRuta.
+    // Devuelve cuántas celdas de la matriz cambiaron
+    public int actualizarRuta(int origen, int destino, int costo, CambioCosto cambios) {
+        if (costo < 0) {
+            throw new IllegalArgumentException("El costo de una ruta no puede ser negativo");
+        }
+        int anterior = grafo.actualizarCostoRuta(origen, destino, costo);
+        if (anterior == costo) {
+            return 0;
+        }
+        if (anterior == -1) {
+            indiceInvalido = true;   // la ruta nueva cambia los índices del CSR
+        }
+
+        int celdas = 0;
+        for (int fila = 0; fila < origenes.length; fila++) {
+            int cantidad = anterior == -1 || costo < anterior
+                ? reducir(distancias[fila], origen, destino, costo)
+                : aumentar(distancias[fila], fila, origen, destino, anterior);
+            celdas += informarCambios(fila, cantidad, cambios);
+        }
+        return celdas;
+    }
+
+    // La ruta (u, v) pasó a costar menos: solo pueden mejorar v y lo que se alcanza desde v
+    private int reducir(int[] distancia, int u, int v, int costo) {
+        if (distancia[u] == INFINITO || distancia[u] + costo >= distancia[v]) {
+            return 0;
+        }
+        int cantidad = 0;
+        distancia[v] = distancia[u] + costo;
+        monticulo.insertarOReducir(v, distancia[v]);
+        while (!monticulo.estaVacio()) {
+            int nodo = monticulo.extraerMinimo();
+            afectados[cantidad++] = nodo;
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                int vecino = grafo.destinoArista(arista);
+                int nuevoCosto = distancia[nodo] + grafo.costoArista(arista);
+                if (nuevoCosto < distancia[vecino]) {
+                    distancia[vecino] = nuevoCosto;
+                    monticulo.insertarOReducir(vecino, nuevoCosto);
+                }
+            }
+        }
+        return cantidad;
+    }
+
+    // La ruta (u, v) pasó a costar más que 'anterior'
+    private int aumentar(int[] distancia, int fila, int u, int v, int anterior) {
+        if (distancia[u] == INFINITO || distancia[u] + anterior != distancia[v] || v == origenes[fila]) {
+            return 0;
+        }
+        actualizarIndiceEntrada();
+
+        // Nodos cuyo camino mínimo podría pasar por (u, v): los alcanzables desde v por aristas ajustadas
+        int cantidad = 0;
+        afectados[cantidad++] = v;
+        esAfectado[v] = true;
+        for (int i = 0; i < cantidad; i++) {
+            int nodo = afectados[i];
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                int vecino = grafo.destinoArista(arista);
+                if (!esAfectado[vecino] && vecino != origenes[fila] &&
+                    distancia[vecino] != INFINITO && distancia[nodo] + grafo.costoArista(arista) == distancia[vecino]) {
+                    esAfectado[vecino] = true;
+                    afectados[cantidad++] = vecino;
+                }
+            }
+        }
+
+        for (int i = 0; i < cantidad; i++) {
+            distanciasPrevias[i] = distancia[afectados[i]];
+            distancia[afectados[i]] = INFINITO;
+        }
+        // Cada afectado arranca con lo mejor que le ofrecen sus vecinos no afectados
+        for (int i = 0; i < cantidad; i++) {
+            int nodo = afectados[i];
+            int mejor = INFINITO;
+            for (int entrada = iniciosEntrada[nodo]; entrada < iniciosEntrada[nodo + 1]; entrada++) {
+                int arista = aristasEntrada[entrada];
+                int previo = origenArista[arista];
+                if (!esAfectado[previo] && distancia[previo] != INFINITO) {
+                    mejor = Math.min(mejor, distancia[previo] + grafo.costoArista(arista));
+                }
+            }
+            if (mejor != INFINITO) {
+                distancia[nodo] = mejor;
+                monticulo.insertarOReducir(nodo, mejor);
+            }
+        }
+        // Dijkstra entre los afectados: los demás ya tienen su distancia final
+        while (!monticulo.estaVacio()) {
+            int nodo = monticulo.extraerMinimo();
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                int vecino = grafo.destinoArista(arista);
+                int nuevoCosto = distancia[nodo] + grafo.costoArista(arista);
+                if (esAfectado[vecino] && nuevoCosto < distancia[vecino]) {
+                    distancia[vecino] = nuevoCosto;
+                    monticulo.insertarOReducir(vecino, nuevoCosto);
+                }
+            }
+        }
+
+        // Quedan en afectados solo los que realmente cambiaron
+        int cambiados = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int nodo = afectados[i];
+            esAfectado[nodo] = false;
+            if (distancia[nodo] != distanciasPrevias[i]) {
+                afectados[cambiados++] = nodo;
+            }
+        }
+        return cambiados;
+    }
+
+    private int informarCambios(int fila, int cantidad, CambioCosto cambios) {
+        int celdas = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int nodo = afectados[i];
+            for (int j = inicioColumnas[nodo]; j < inicioColumnas[nodo + 1]; j++) {
+                int columna = columnasDeNodo[j];
+                if (matriz.get(fila, columna) != distancias[fila][nodo]) {
+                    matriz.set(fila, columna, distancias[fila][nodo]);
+                    cambios.cambiar(fila, columna, distancias[fila][nodo]);
+                    celdas++;
+                }
+            }
+        }
+        return celdas;
+    }
+
+    // Índice inverso del CSR. Solo hay que rehacerlo cuando se agregan rutas
+    private void actualizarIndiceEntrada() {
+        if (!indiceInvalido) {
+            return;
+        }
+        int numNodos = grafo.numNodos;
+        int totalAristas = grafo.getNumRutas();
+        iniciosEntrada = new int[numNodos + 1];
+        aristasEntrada = new int[totalAristas];
+        origenArista = new int[totalAristas];
+        for (int nodo = 0; nodo < numNodos; nodo++) {
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                origenArista[arista] = nodo;
+                iniciosEntrada[grafo.destinoArista(arista) + 1]++;
+            }
+        }
+        for (int nodo = 0; nodo < numNodos; nodo++) {
+            iniciosEntrada[nodo + 1] += iniciosEntrada[nodo];
+        }
+        int[] siguiente = Arrays.copyOf(iniciosEntrada, numNodos);
+        for (int arista = 0; arista < totalAristas; arista++) {
+            aristasEntrada[siguiente[grafo.destinoArista(arista)]++] = arista;
+        }
+        indiceInvalido = false;
+    }
+}
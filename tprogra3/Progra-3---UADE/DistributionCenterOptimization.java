@@ -1,225 +1,733 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DistributionCenterOptimization {
     private int numClientes;
     private int numCentros;
-    private int[][] centrosCostos;      // [centro][costoUnitarioPuerto, costoFijo]
+    private int[][] centrosCostos;      // [centro][id, costoUnitarioPuerto, costoFijo, capacidad]
     private int[][] clientesVolumen;     // [cliente][volumen]
-    private int[][] costosTransporte;    // [centro][cliente] - calculado por Dijkstra
-    private boolean[] centrosSeleccionados;
+    private MatrizCostos costosTransporte;    // [centro][cliente] - calculado por Dijkstra, en el heap o mapeado
     private int[] mejorAsignacion;
     private int costoTotal;
-    private int[] clientesAsignados;
     private int[] costosMinimosPorCliente;
+    // Centros alcanzables de cada cliente, del más barato al más caro, hasta maximoCandidatos
     private int[][] centrosOrdenadosPorCliente;
+    private int maximoCandidatos = Integer.MAX_VALUE;
+    private boolean[] listaRecortada;
+    private long[] ultimaClave;   // clave del último candidato de cada lista recortada
+    private int clientesRecortados;
+    private long[] clavesCandidatos;
+    // Cliente que se asigna en cada nivel del árbol. Con capacidades van primero los de más
+    // volumen, que son los que antes hacen saltar una asignación infactible
+    private int[] ordenClientes;
+    private int candidatosPorNivel;
+    private EstrategiaRamificacion estrategiaRamificacion = EstrategiaRamificacion.ORDEN_ENTRADA;
+    // Con CENTROS_PRIMERO los primeros niveles deciden abrir o cerrar cada centro
+    private int nivelesCentros;
+    private int numNiveles;
+    private int[] ordenCentros;
+    private int volumenMinimo;
+    // Modo heurístico: solo los 3 primeros candidatos de cada cliente que pasan los filtros
+    // (dominancia incluida) y sin centros a más del doble del costo mínimo. Es más rápido
+    // pero puede perder el óptimo
+    private boolean modoHeuristico;
+    private boolean silencioso;
+    // Sin capacidades se descartan candidatos dominados (exacto), también en modo heurístico
+    private boolean podaPorDominancia;
+    // Centros de menor a mayor costo fijo por unidad de capacidad, para la cota con capacidades
+    private int[] centrosPorCostoDeCapacidad;
+    // Cambios incrementales pendientes de reflejar en los precálculos
+    private boolean[] clientesDesactualizados;
+    private boolean ordenesDesactualizados;
+    // Mejor solución conocida, compartida por todos los hilos de la búsqueda
+    private AtomicReference<Incumbente> incumbente;
+    private InstanciaLogistica instancia;
+    private EstrategiaCota estrategiaCota = EstrategiaCota.lagrangiana();
+    private EscuchaBusqueda escucha = new EscuchaBusqueda() { };
+    private MetricasBusqueda metricas;
+    private long nanosInicializacion;
+    // Presupuesto de la búsqueda en curso
+    private static final int NODOS_ENTRE_CONTROLES = 1024;
+    private Presupuesto presupuesto = Presupuesto.sinLimite();
+    private long limiteNanos;
+    private AtomicLong nodosConsumidos;
+    private volatile boolean detenido;
+    // Menor cota de los nodos que quedaron sin explorar al agotarse el presupuesto
+    private AtomicInteger cotaAbandonada;
 
     public void inicializar(String archivo, int[][] costosCalculados) throws IOException {
-        System.out.println("Iniciando inicialización...");
+        inicializar(archivo, costosCalculados == null ? null : MatrizCostos.deMatriz(costosCalculados));
+    }
+
+    // La matriz se usa sin copiarla; solo actualizarCostoTransporte escribe en ella
+    public void inicializar(String archivo, MatrizCostos costosCalculados) throws IOException {
+        informar("Iniciando inicialización...");
+        long inicio = System.nanoTime();
         leerDatosDeArchivo(archivo);
         
-        if (costosCalculados == null || costosCalculados.length != numCentros || 
-            costosCalculados[0].length != numClientes) {
+        if (costosCalculados == null || costosCalculados.getFilas() != numCentros || 
+            costosCalculados.getColumnas() != numClientes) {
             throw new IllegalArgumentException("Matriz de costos inválida");
         }
 
         this.costosTransporte = costosCalculados;
-        this.centrosSeleccionados = new boolean[numCentros];
-        this.clientesAsignados = new int[numClientes];
+        this.instancia = new InstanciaLogistica(centrosCostos, clientesVolumen, costosTransporte);
         this.mejorAsignacion = new int[numClientes];
-        Arrays.fill(clientesAsignados, -1);
+        Arrays.fill(mejorAsignacion, -1);
         this.costoTotal = Integer.MAX_VALUE;
+        this.clientesDesactualizados = new boolean[numClientes];
+        this.ordenesDesactualizados = false;
         
         precalcularCostosMinimosPorCliente();
         precalcularOrdenCentros();
+        precalcularOrdenClientes();
+        nanosInicializacion = System.nanoTime() - inicio;
         
-        System.out.println("Inicialización completada exitosamente");
+        informar("Inicialización completada exitosamente");
+    }
+
+    // Nodos del árbol visitados por la última llamada a optimizar u optimizarParalelo
+    public long getNodosExplorados() {
+        return metricas == null ? 0 : metricas.getNodosExpandidos();
+    }
+
+    // Métricas de la última búsqueda (null si todavía no se optimizó)
+    public MetricasBusqueda getMetricas() {
+        return metricas;
+    }
+
+    public void setEscuchaBusqueda(EscuchaBusqueda escucha) {
+        this.escucha = Objects.requireNonNull(escucha);
+    }
+
+    // Sin mensajes de progreso ni trazas de error por consola; los errores se siguen
+    // lanzando. Para correr varios optimizadores a la vez sin mezclar su salida
+    public void setSilencioso(boolean silencioso) {
+        this.silencioso = silencioso;
+    }
+
+    public void setEstrategiaCota(EstrategiaCota estrategiaCota) {
+        this.estrategiaCota = Objects.requireNonNull(estrategiaCota);
+    }
+
+    public void setModoHeuristico(boolean modoHeuristico) {
+        this.modoHeuristico = modoHeuristico;
+        this.ordenesDesactualizados = true;
+    }
+
+    // Deja en la lista de cada cliente solo sus 'maximo' centros más baratos. Con cientos de
+    // centros las listas completas ocupan más que la matriz y casi todos sus candidatos se
+    // podan igual. Si se recorta alguna lista, la solución es la óptima del problema recortado
+    // y se informa como cota inferior la de la raíz del problema completo
+    public void setMaximoCandidatos(int maximo) {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un candidato por cliente");
+        }
+        this.maximoCandidatos = maximo;
+        if (clientesDesactualizados != null) {
+            Arrays.fill(clientesDesactualizados, true);
+        }
+    }
+
+    public void setEstrategiaRamificacion(EstrategiaRamificacion estrategiaRamificacion) {
+        this.estrategiaRamificacion = Objects.requireNonNull(estrategiaRamificacion);
+        this.ordenesDesactualizados = true;
     }
 
     public SolucionLogistica optimizar() {
-        System.out.println("Iniciando proceso de optimización...");
+        return optimizar(Presupuesto.sinLimite(), false, null);
+    }
+
+    // Modo "anytime": arranca con una solución heurística como incumbente y corta
+    // cuando se agota el presupuesto. La solución devuelta informa la cota inferior
+    // demostrada, así que la brecha con el óptimo queda acotada
+    public SolucionLogistica optimizar(Presupuesto presupuesto) {
+        return optimizar(presupuesto, true, null);
+    }
+
+    // Cambios incrementales: modifican los datos cargados y la próxima búsqueda rehace
+    // solo los precálculos de los clientes afectados. Después de aplicarlos conviene
+    // llamar a reoptimizar con la solución anterior en vez de empezar de cero
+    public void actualizarVolumen(int cliente, int volumen) {
+        Objects.checkIndex(cliente, numClientes);
+        if (volumen < 0) {
+            throw new IllegalArgumentException("El volumen no puede ser negativo");
+        }
+        clientesVolumen[cliente][1] = volumen;
+        // El volumen no cambia el costo unitario, solo el orden de los clientes y el volumen mínimo
+        ordenesDesactualizados = true;
+    }
+
+    public void actualizarCostoCentro(int centro, int costoUnitario, int costoFijo) {
+        Objects.checkIndex(centro, numCentros);
+        centrosCostos[centro][1] = costoUnitario;
+        centrosCostos[centro][2] = costoFijo;
+        Arrays.fill(clientesDesactualizados, true);
+        ordenesDesactualizados = true;
+    }
+
+    // Tiene la forma de DistanciasDinamicas.CambioCosto, así se puede pasar directamente
+    // como destino de los cambios al reparar caminos mínimos
+    public void actualizarCostoTransporte(int centro, int cliente, int costo) {
+        Objects.checkIndex(centro, numCentros);
+        Objects.checkIndex(cliente, numClientes);
+        costosTransporte.set(centro, cliente, costo);
+        clientesDesactualizados[cliente] = true;
+    }
+
+    // Vuelve a optimizar tras cambios incrementales usando la solución anterior (con los
+    // costos actuales) como incumbente inicial: el árbol se poda desde el primer nodo
+    public SolucionLogistica reoptimizar(SolucionLogistica anterior) {
+        return reoptimizar(anterior, Presupuesto.sinLimite());
+    }
+
+    public SolucionLogistica reoptimizar(SolucionLogistica anterior, Presupuesto presupuesto) {
+        return optimizar(presupuesto, false, anterior.getAsignacionClientes());
+    }
+
+    private SolucionLogistica optimizar(Presupuesto presupuesto, boolean arranqueHeuristico, int[] asignacionPrevia) {
+        informar("Iniciando proceso de optimización...");
         try {
-            backtracking(0);
-            
-            if (costoTotal == Integer.MAX_VALUE) {
-                throw new RuntimeException("No se encontró ninguna solución válida");
-            }
-            
-            System.out.println("Optimización completada. Costo total encontrado: " + costoTotal);
-            return new SolucionLogistica(
-                mejorAsignacion.clone(),
-                costoTotal,
-                obtenerCentrosUtilizados()
-            );
+            EstadoBusqueda estado = prepararBusqueda(presupuesto, arranqueHeuristico, asignacionPrevia);
+            long inicioBusqueda = System.nanoTime();
+            backtracking(estado, 0);
+            metricas.sumar(estado.contadores);
+            metricas.registrarFase("busqueda", System.nanoTime() - inicioBusqueda);
+            return construirSolucion();
         } catch (Exception e) {
-            System.err.println("Error durante la optimización: " + e.getMessage());
-            e.printStackTrace();
+            informarError(e);
             throw e;
         }
     }
 
-    private void precalcularCostosMinimosPorCliente() {
-        costosMinimosPorCliente = new int[numClientes];
-        for (int cliente = 0; cliente < numClientes; cliente++) {
-            int costoMinimo = Integer.MAX_VALUE;
-            for (int centro = 0; centro < numCentros; centro++) {
-                if (costosTransporte[centro][cliente] != Integer.MAX_VALUE) {
-                    int costoTotal = costosTransporte[centro][cliente] + centrosCostos[centro][1];
-                    costoMinimo = Math.min(costoMinimo, costoTotal);
-                }
-            }
-            costosMinimosPorCliente[cliente] = costoMinimo;
+    public SolucionLogistica optimizarParalelo() {
+        return optimizarParalelo(ForkJoinPool.commonPool());
+    }
+
+    // Reparte el árbol en tareas por las primeras asignaciones de clientes.
+    // Todas las tareas comparten el mismo incumbente, así que una cota encontrada
+    // en una rama poda las demás. El resultado es idéntico al de optimizar().
+    public SolucionLogistica optimizarParalelo(ForkJoinPool pool) {
+        return optimizarParalelo(pool, Presupuesto.sinLimite(), false);
+    }
+
+    public SolucionLogistica optimizarParalelo(ForkJoinPool pool, Presupuesto presupuesto) {
+        return optimizarParalelo(pool, presupuesto, true);
+    }
+
+    private SolucionLogistica optimizarParalelo(ForkJoinPool pool, Presupuesto presupuesto, boolean arranqueHeuristico) {
+        informar("Iniciando proceso de optimización paralela (" + pool.getParallelism() + " hilos)...");
+        try {
+            EstadoBusqueda raiz = prepararBusqueda(presupuesto, arranqueHeuristico, null);
+            long inicioBusqueda = System.nanoTime();
+            int niveles = calcularNivelesParalelos(pool.getParallelism());
+            pool.invoke(new TareaRamificacion(raiz, 0, niveles));
+            metricas.registrarFase("busqueda", System.nanoTime() - inicioBusqueda);
+            return construirSolucion();
+        } catch (Exception e) {
+            informarError(e);
+            throw e;
         }
     }
 
-    private void precalcularOrdenCentros() {
-        centrosOrdenadosPorCliente = new int[numClientes][numCentros];
-        for (int cliente = 0; cliente < numClientes; cliente++) {
-            centrosOrdenadosPorCliente[cliente] = obtenerCentrosOrdenadosPorCosto(cliente);
+    // Alternativa exacta al backtracking cuando hay pocos centros candidatos: recorre
+    // los subconjuntos de centros abiertos en orden Gray (hasta 2^30)
+    // Da la misma asignación que optimizar mientras el óptimo tenga un solo conjunto de
+    // centros abiertos; si varios conjuntos empatan en costo, solo se garantiza el costo
+    public SolucionLogistica optimizarPorSubconjuntos() {
+        informar("Iniciando optimización por subconjuntos de centros...");
+        try {
+            SolucionLogistica solucion = new OptimizadorSubconjuntos(instancia).resolver();
+            return registrarSolucion(solucion.getCostoTotal(), solucion.getAsignacionClientes());
+        } catch (Exception e) {
+            informarError(e);
+            throw e;
         }
     }
 
-    private void backtracking(int cliente) {
-        if (cliente == numClientes) {
-            evaluarSolucion();
-            return;
+    private void informar(String mensaje) {
+        if (!silencioso) {
+            System.out.println(mensaje);
         }
+    }
 
-        int costoAcumulado = calcularCostoAcumulado(cliente);
-        int costoMinimoRestante = calcularCostoMinimoRestante(cliente);
-        
-        if (costoTotal != Integer.MAX_VALUE && 
-            costoAcumulado + costoMinimoRestante >= costoTotal) {
-            return;
+    private void informarError(Exception e) {
+        if (!silencioso) {
+            System.err.println("Error durante la optimización: " + e.getMessage());
+            e.printStackTrace();
         }
+    }
 
-        int centrosAProbar = Math.min(3, numCentros);
-        for (int i = 0; i < centrosAProbar; i++) {
-            int centro = centrosOrdenadosPorCliente[cliente][i];
-            
-            if (costosTransporte[centro][cliente] != Integer.MAX_VALUE && 
-                esCentroViable(centro, cliente)) {
-                
-                clientesAsignados[cliente] = centro;
-                centrosSeleccionados[centro] = true;
+    private EstadoBusqueda prepararBusqueda(Presupuesto presupuesto, boolean arranqueHeuristico,
+                                            int[] asignacionPrevia) {
+        actualizarPrecalculos();
+        incumbente = new AtomicReference<>();
+        metricas = new MetricasBusqueda(numNiveles);
+        metricas.registrarFase("inicializacion", nanosInicializacion);
 
-                backtracking(cliente + 1);
+        this.presupuesto = presupuesto;
+        this.limiteNanos = presupuesto.getNanos() == Long.MAX_VALUE ? Long.MAX_VALUE
+                                                                    : System.nanoTime() + presupuesto.getNanos();
+        this.nodosConsumidos = new AtomicLong();
+        this.cotaAbandonada = new AtomicInteger(Integer.MAX_VALUE);
+        this.detenido = false;
 
-                if (!hayClientesRestantesParaCentro(centro, cliente)) {
-                    centrosSeleccionados[centro] = false;
+        if (arranqueHeuristico || asignacionPrevia != null) {
+            long inicioArranque = System.nanoTime();
+            if (asignacionPrevia != null) {
+                long costo = costoDeAsignacion(asignacionPrevia);
+                if (costo != -1) {
+                    ofrecerIncumbenteInicial(Math.toIntExact(costo), asignacionPrevia.clone());
+                }
+            }
+            if (arranqueHeuristico) {
+                SolucionLogistica inicial = new HeuristicaInicial(instancia).resolver();
+                if (inicial != null) {
+                    ofrecerIncumbenteInicial(inicial.getCostoTotal(), inicial.getAsignacionClientes());
                 }
-                clientesAsignados[cliente] = -1;
             }
+            metricas.registrarFase("arranque", System.nanoTime() - inicioArranque);
+        }
+
+        long inicioCota = System.nanoTime();
+        EstadoBusqueda raiz = new EstadoBusqueda(estrategiaCota.crear(instancia));
+        if (clientesRecortados > 0) {
+            cotaAbandonada.set(raiz.cotaInferior());
         }
+        metricas.registrarFase("cota", System.nanoTime() - inicioCota);
+        return raiz;
     }
 
-    private int[] obtenerCentrosOrdenadosPorCosto(int cliente) {
-        class CentroConCosto implements Comparable<CentroConCosto> {
-            int centro;
-            int costo;
+    // Sin camino en el árbol: cualquier hoja de igual costo la reemplaza
+    private void ofrecerIncumbenteInicial(int costo, int[] asignacion) {
+        Incumbente actual = incumbente.get();
+        if (actual == null || costo < actual.costo) {
+            incumbente.set(new Incumbente(costo, asignacion, null));
+            metricas.registrarMejora(costo, metricas.nanosDesdeInicio());
+            escucha.alMejorarSolucion(costo, metricas.nanosDesdeInicio());
+        }
+    }
 
-            CentroConCosto(int centro, int costo) {
-                this.centro = centro;
-                this.costo = costo;
+    // Costo de una asignación completa con los datos actuales, -1 si ya no es factible
+    private long costoDeAsignacion(int[] asignacion) {
+        if (asignacion.length != numClientes) {
+            return -1;
+        }
+        long costo = 0;
+        long[] carga = new long[numCentros];
+        boolean[] abiertos = new boolean[numCentros];
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            int centro = asignacion[cliente];
+            if (centro < 0 || centro >= numCentros || !instancia.esAlcanzable(cliente, centro)) {
+                return -1;
             }
-
-            @Override
-            public int compareTo(CentroConCosto otro) {
-                return Integer.compare(this.costo, otro.costo);
+            if (!abiertos[centro]) {
+                abiertos[centro] = true;
+                costo += instancia.getCostoFijo(centro);
+            }
+            carga[centro] += instancia.getVolumen(cliente);
+            costo += instancia.costoAsignacion(cliente, centro);
+        }
+        for (int centro = 0; centro < numCentros; centro++) {
+            if (carga[centro] > instancia.getCapacidad(centro)) {
+                return -1;
             }
         }
+        return costo <= Integer.MAX_VALUE ? costo : -1;
+    }
 
-        CentroConCosto[] centros = new CentroConCosto[numCentros];
-        for (int i = 0; i < numCentros; i++) {
-            int costoTotal = costosTransporte[i][cliente];
-            if (costoTotal != Integer.MAX_VALUE) {
-                costoTotal += centrosCostos[i][1];
+    // Rehace los precálculos que invalidaron los cambios incrementales
+    private void actualizarPrecalculos() {
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            if (clientesDesactualizados[cliente]) {
+                costosMinimosPorCliente[cliente] = calcularCostoMinimo(cliente);
+                ordenarCentros(cliente);
+                clientesDesactualizados[cliente] = false;
             }
-            centros[i] = new CentroConCosto(i, costoTotal);
         }
+        if (ordenesDesactualizados) {
+            precalcularOrdenClientes();
+            ordenesDesactualizados = false;
+        }
+    }
+
+    private SolucionLogistica construirSolucion() {
+        escucha.alTerminar(metricas);
+        Incumbente mejor = incumbente.get();
+        if (mejor == null) {
+            throw new RuntimeException(detenido ? "Se agotó el presupuesto sin encontrar una solución"
+                                                : "No se encontró ninguna solución válida");
+        }
+        if (detenido) {
+            informar("Presupuesto agotado: se devuelve la mejor solución encontrada");
+        }
+        return registrarSolucion(mejor.costo, mejor.asignacion, Math.min(mejor.costo, cotaAbandonada.get()));
+    }
 
-        Arrays.sort(centros);
-        return Arrays.stream(centros).mapToInt(c -> c.centro).toArray();
+    private SolucionLogistica registrarSolucion(int costo, int[] asignacion) {
+        return registrarSolucion(costo, asignacion, costo);
     }
 
-    private boolean esCentroViable(int centro, int cliente) {
-        return centrosSeleccionados[centro] || 
-               costosTransporte[centro][cliente] <= costosMinimosPorCliente[cliente] * 2;
+    private SolucionLogistica registrarSolucion(int costo, int[] asignacion, int cotaInferior) {
+        costoTotal = costo;
+        System.arraycopy(asignacion, 0, mejorAsignacion, 0, numClientes);
+        informar("Optimización completada. Costo total encontrado: " + costoTotal);
+        return new SolucionLogistica(
+            mejorAsignacion.clone(),
+            costoTotal,
+            obtenerCentrosUtilizados(),
+            cotaInferior
+        );
     }
 
-    private int calcularCostoMinimoRestante(int clienteActual) {
-        int costoMinimo = 0;
-        for (int i = clienteActual; i < numClientes; i++) {
-            costoMinimo += costosMinimosPorCliente[i] * clientesVolumen[i][1];
+    // El presupuesto de nodos cuenta nodos expandidos. Cada estado los acumula y los
+    // informa de a NODOS_ENTRE_CONTROLES, así no se lee el reloj ni el contador global en cada nodo
+    private boolean presupuestoAgotado(EstadoBusqueda estado) {
+        if (detenido) {
+            return true;
         }
-        int centrosNecesarios = Math.max(1, (numClientes - clienteActual) / 20);
-        int costoFijoMinimo = Integer.MAX_VALUE;
-        for (int i = 0; i < numCentros; i++) {
-            costoFijoMinimo = Math.min(costoFijoMinimo, centrosCostos[i][2]);
+        if (presupuesto.tieneLimite() && ++estado.expansionesSinInformar == NODOS_ENTRE_CONTROLES) {
+            informarExpansiones(estado);
+        }
+        return detenido;
+    }
+
+    private void informarExpansiones(EstadoBusqueda estado) {
+        long consumidos = nodosConsumidos.addAndGet(estado.expansionesSinInformar);
+        estado.expansionesSinInformar = 0;
+        if (consumidos >= presupuesto.getNodos() || System.nanoTime() >= limiteNanos) {
+            detenido = true;
         }
-        return costoMinimo + (centrosNecesarios * costoFijoMinimo);
     }
 
-    private boolean hayClientesRestantesParaCentro(int centro, int clienteActual) {
-        for (int i = 0; i <= clienteActual; i++) {
-            if (clientesAsignados[i] == centro) {
-                return true;
+    // El subárbol que no se explora queda representado por su cota
+    private void abandonar(EstadoBusqueda estado) {
+        cotaAbandonada.accumulateAndGet(estado.cotaInferior(), Math::min);
+    }
+
+    // Cantidad de niveles que se reparten en tareas: los suficientes para tener
+    // varias tareas por hilo y que el pool pueda balancear la carga
+    private int calcularNivelesParalelos(int paralelismo) {
+        long tareas = 1;
+        int niveles = 0;
+        while (niveles < numNiveles && tareas < paralelismo * 8L) {
+            int ramas = niveles < nivelesCentros ? 2 : candidatosPorNivel;
+            if (ramas <= 1) {
+                break;
             }
+            tareas *= ramas;
+            niveles++;
+        }
+        return niveles;
+    }
+
+    private void precalcularCostosMinimosPorCliente() {
+        costosMinimosPorCliente = new int[numClientes];
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            costosMinimosPorCliente[cliente] = calcularCostoMinimo(cliente);
         }
-        return false;
     }
 
-    private void evaluarSolucion() {
-        int costoActual = calcularCostoTotal();
-        if (costoActual < costoTotal) {
-            costoTotal = costoActual;
-            System.arraycopy(clientesAsignados, 0, mejorAsignacion, 0, numClientes);
-            System.out.println("Nueva mejor solución encontrada con costo: " + costoTotal);
+    private int calcularCostoMinimo(int cliente) {
+        int costoMinimo = Integer.MAX_VALUE;
+        for (int centro = 0; centro < numCentros; centro++) {
+            int transporte = costosTransporte.get(centro, cliente);
+            if (transporte != Integer.MAX_VALUE) {
+                int costoTotal = transporte + centrosCostos[centro][1];
+                costoMinimo = Math.min(costoMinimo, costoTotal);
+            }
         }
+        return costoMinimo;
     }
 
-    private int calcularCostoAcumulado(int clienteActual) {
-        int costoAcum = 0;
-        int[] clientesPorCentro = new int[numCentros];
+    private void precalcularOrdenCentros() {
+        centrosOrdenadosPorCliente = new int[numClientes][];
+        listaRecortada = new boolean[numClientes];
+        ultimaClave = new long[numClientes];
+        clientesRecortados = 0;
+        clavesCandidatos = new long[numCentros];
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            ordenarCentros(cliente);
+        }
+    }
 
-        for (int i = 0; i < clienteActual; i++) {
-            int centro = clientesAsignados[i];
-            if (centro != -1) {
-                clientesPorCentro[centro]++;
-                costoAcum += clientesVolumen[i][1] * 
-                            (costosTransporte[centro][i] + centrosCostos[centro][1]);
+    private void precalcularOrdenClientes() {
+        if (instancia.esCapacitada()) {
+            // Los candidatos que descartan las heurísticas pueden ser los únicos con lugar,
+            // así que con capacidades se prueban siempre todos
+            ordenClientes = instancia.clientesPorVolumenDescendente();
+            candidatosPorNivel = numCentros;
+        } else {
+            ordenClientes = CostMatrixBuilder.rango(0, numClientes);
+            candidatosPorNivel = modoHeuristico ? Math.min(3, numCentros) : numCentros;
+        }
+        podaPorDominancia = !instancia.esCapacitada();
+        nivelesCentros = estrategiaRamificacion == EstrategiaRamificacion.CENTROS_PRIMERO ? numCentros : 0;
+        numNiveles = nivelesCentros + numClientes;
+
+        volumenMinimo = Integer.MAX_VALUE;
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            volumenMinimo = Math.min(volumenMinimo, instancia.getVolumen(cliente));
+        }
+
+        Integer[] centros = new Integer[numCentros];
+        for (int centro = 0; centro < numCentros; centro++) {
+            centros[centro] = centro;
+        }
+        Arrays.sort(centros, Comparator.comparingDouble(centro -> (double) instancia.getCostoFijo(centro) /
+                                                                  Math.max(1, instancia.getCapacidad(centro))));
+        centrosPorCostoDeCapacidad = Arrays.stream(centros).mapToInt(Integer::intValue).toArray();
+        // Los más baratos se deciden primero: abrirlos suele dar buenas soluciones enseguida
+        Arrays.sort(centros, Comparator.comparingInt(centro -> instancia.getCostoFijo(centro)));
+        ordenCentros = Arrays.stream(centros).mapToInt(Integer::intValue).toArray();
+    }
+
+    private void backtracking(EstadoBusqueda estado, int nivel) {
+        estado.contadores.nodos++;
+        estado.contadores.nodosPorProfundidad[nivel]++;
+        if (nivel == numNiveles) {
+            evaluarSolucion(estado);
+            return;
+        }
+
+        if (esInfactible(estado) || debePodar(estado, nivel)) {
+            return;
+        }
+
+        if (presupuestoAgotado(estado)) {
+            abandonar(estado);
+            return;
+        }
+
+        if (nivel < nivelesCentros) {
+            // Primero se abre y después se cierra, así el orden DFS es el de camino
+            int centro = ordenCentros[nivel];
+            if (sePuedeAbrir(estado, centro)) {
+                estado.fijarCentro(nivel, centro, true);
+                backtracking(estado, nivel + 1);
+                estado.liberarCentro(nivel, centro, true);
             }
+            estado.fijarCentro(nivel, centro, false);
+            backtracking(estado, nivel + 1);
+            estado.liberarCentro(nivel, centro, false);
+            return;
         }
 
-        for (int i = 0; i < numCentros; i++) {
-            if (clientesPorCentro[i] > 0) {
-                costoAcum += centrosCostos[i][2];
+        // Se cuentan los candidatos que se prueban, no las posiciones de la lista: los
+        // dominados no ocupan lugar entre los candidatosPorNivel del modo heurístico
+        int cliente = elegirCliente(estado, nivel);
+        int[] candidatos = centrosOrdenadosPorCliente[cliente];
+        for (int i = 0, probados = 0; i < candidatos.length && probados < candidatosPorNivel; i++) {
+            int centro = candidatos[i];
+            
+            if (esCandidato(estado, centro, cliente)) {
+                probados++;
+                estado.asignar(nivel, cliente, centro, i);
+                backtracking(estado, nivel + 1);
+                estado.desasignar(nivel);
             }
         }
+    }
 
-        return costoAcum;
+    // Con capacidades: el volumen pendiente ya no entra en lo que queda de los centros.
+    // Con centros cerrados: algún cliente se quedó sin centro que lo alcance
+    private boolean esInfactible(EstadoBusqueda estado) {
+        if (estado.clientesSinCentro > 0) {
+            estado.contadores.podasInalcanzable++;
+            return true;
+        }
+        if (instancia.esCapacitada() && estado.volumenPendiente > estado.capacidadUtil) {
+            estado.contadores.podasCapacidad++;
+            return true;
+        }
+        return false;
     }
 
-    private int calcularCostoTotal() {
-        int costo = 0;
-        int[] clientesPorCentro = new int[numCentros];
+    // Abrir a la fuerza un centro que no ahorra su costo fijo en ningún cliente pendiente
+    // está dominado por cerrarlo, por el mismo argumento que estaDominado
+    private boolean sePuedeAbrir(EstadoBusqueda estado, int centro) {
+        if (podaPorDominancia && estado.clientesSinAbierto[centro] == 0 &&
+            estado.ahorroPosible[centro] <= centrosCostos[centro][2]) {
+            estado.contadores.podasDominancia++;
+            return false;
+        }
+        return true;
+    }
 
+    // Cliente que se asigna en este nivel. Con MAYOR_ARREPENTIMIENTO se elige en cada nodo
+    // el de mayor diferencia entre su mejor y su segundo mejor opción; empata el de menor índice
+    private int elegirCliente(EstadoBusqueda estado, int nivel) {
+        if (estrategiaRamificacion != EstrategiaRamificacion.MAYOR_ARREPENTIMIENTO) {
+            return ordenClientes[nivel - nivelesCentros];
+        }
+        int elegido = -1;
+        long mayorArrepentimiento = -1;
         for (int cliente = 0; cliente < numClientes; cliente++) {
-            int centro = clientesAsignados[cliente];
-            if (centro != -1) {
-                clientesPorCentro[centro]++;
-                costo += clientesVolumen[cliente][1] * 
-                        (costosTransporte[centro][cliente] + centrosCostos[centro][1]);
+            if (estado.clientesAsignados[cliente] != -1) {
+                continue;
+            }
+            long arrepentimiento = calcularArrepentimiento(estado, cliente);
+            if (arrepentimiento > mayorArrepentimiento) {
+                mayorArrepentimiento = arrepentimiento;
+                elegido = cliente;
+                if (arrepentimiento == Long.MAX_VALUE) {
+                    break;   // sin opciones: se poda enseguida
+                }
             }
         }
+        return elegido;
+    }
+
+    // Costo de asignación (ya multiplicado por el volumen) del segundo mejor centro
+    // posible menos el del mejor. Un cliente con una sola opción es el más urgente después
+    // de uno sin ninguna
+    private long calcularArrepentimiento(EstadoBusqueda estado, int cliente) {
+        int mejor = -1;
+        int[] candidatos = centrosOrdenadosPorCliente[cliente];
+        for (int i = 0; i < candidatos.length; i++) {
+            int centro = candidatos[i];
+            int costo = instancia.costoAsignacion(cliente, centro);
+            if (estado.centroCerrado[centro] || estado.capacidadRestante[centro] < instancia.getVolumen(cliente) ||
+                (podaPorDominancia && estaDominado(estado, centro, cliente))) {
+                continue;
+            }
+            if (mejor != -1) {
+                return (long) costo - mejor;
+            }
+            mejor = costo;
+        }
+        return mejor == -1 ? Long.MAX_VALUE : Long.MAX_VALUE - 1;
+    }
+
+    // Un nodo se poda si su cota supera al incumbente, o si la iguala y el incumbente
+    // aparece antes en el orden DFS: así cualquier reparto de hilos elige el mismo empate
+    private boolean debePodar(EstadoBusqueda estado, int nivel) {
+        Incumbente mejor = incumbente.get();
+        if (mejor == null) {
+            return false;
+        }
+
+        int cota = estado.cotaInferior();
+        if (cota > mejor.costo || (cota == mejor.costo && mejor.precedeA(estado.camino, nivel))) {
+            estado.contadores.podasCota++;
+            return true;
+        }
+        return false;
+    }
 
+    // Filtra los candidatos de un cliente, contando por qué se descarta cada uno
+    private boolean esCandidato(EstadoBusqueda estado, int centro, int cliente) {
+        if (estado.centroCerrado[centro]) {
+            return false;   // decisión de un nivel anterior, no es una poda
+        }
+        if (costosTransporte.get(centro, cliente) == Integer.MAX_VALUE) {
+            estado.contadores.podasInalcanzable++;
+            return false;
+        }
+        if (estado.capacidadRestante[centro] < instancia.getVolumen(cliente)) {
+            estado.contadores.podasCapacidad++;
+            return false;
+        }
+        if (podaPorDominancia && estaDominado(estado, centro, cliente)) {
+            estado.contadores.podasDominancia++;
+            return false;
+        }
+        if (modoHeuristico && !instancia.esCapacitada() && !esCentroViable(estado, centro, cliente)) {
+            estado.contadores.podasViabilidad++;
+            return false;
+        }
+        return true;
+    }
+
+    // Sin capacidades, cada cliente termina en su centro abierto más barato. Si hay una
+    // solución que asigna el cliente a un centro dominado, hay otra al menos igual de
+    // buena que no lo hace, así que descartarlo no pierde el óptimo:
+    //  - Un centro cerrado que no es más barato que el mejor abierto del cliente, o uno
+    //    abierto más caro que ese, se reemplaza por el mejor abierto. Los empates se
+    //    comparan por (costo, índice), como OptimizadorSubconjuntos: así entre soluciones
+    //    de igual costo con los mismos centros abiertos gana la misma asignación.
+    //  - Un centro cerrado cuyo ahorro posible sobre los clientes sin asignar (respecto de
+    //    sus mejores abiertos) no paga su costo fijo no conviene abrirlo en este subárbol.
+    private boolean estaDominado(EstadoBusqueda estado, int centro, int cliente) {
+        int costo = instancia.costoAsignacion(cliente, centro);
+        int mejorAbierto = estado.mejorAbierto[cliente];
+        boolean peorQueAbierto = costo > mejorAbierto ||
+                                 (costo == mejorAbierto && centro > estado.centroMejorAbierto[cliente]);
+        if (estado.estaAbierto(centro) || peorQueAbierto) {
+            return peorQueAbierto;
+        }
+        return estado.clientesSinAbierto[centro] == 0 && estado.ahorroPosible[centro] <= centrosCostos[centro][2];
+    }
+
+    // Ordena los centros alcanzables del cliente por costo unitario (transporte más puerto).
+    // Cada centro se empaqueta con su costo en un long, costo en los bits altos, así que un
+    // solo sort primitivo ordena por costo y desempata por índice, sin objetos por centro
+    private void ordenarCentros(int cliente) {
+        int cantidad = 0;
         for (int centro = 0; centro < numCentros; centro++) {
-            if (clientesPorCentro[centro] > 0) {
-                costo += centrosCostos[centro][2];
+            int transporte = costosTransporte.get(centro, cliente);
+            if (transporte != Integer.MAX_VALUE) {
+                long costo = (long) transporte + centrosCostos[centro][1];   // menos de 2^32
+                clavesCandidatos[cantidad++] = costo << 31 | centro;
             }
         }
+        Arrays.sort(clavesCandidatos, 0, cantidad);
 
-        return costo;
+        int largo = Math.min(cantidad, maximoCandidatos);
+        int[] centros = new int[largo];
+        for (int i = 0; i < largo; i++) {
+            centros[i] = (int) (clavesCandidatos[i] & Integer.MAX_VALUE);
+        }
+        centrosOrdenadosPorCliente[cliente] = centros;
+        boolean recortada = largo < cantidad;
+        ultimaClave[cliente] = recortada ? clavesCandidatos[largo - 1] : Long.MAX_VALUE;
+        if (recortada != listaRecortada[cliente]) {
+            listaRecortada[cliente] = recortada;
+            clientesRecortados += recortada ? 1 : -1;
+        }
+    }
+
+    // Costo de asignación si el centro está en la lista del cliente, INALCANZABLE si no.
+    // La dominancia y los centros disponibles se calculan sobre las listas: con listas
+    // recortadas razonan sobre el problema recortado y siguen siendo exactos para él
+    private int costoCandidato(int cliente, int centro) {
+        int costo = instancia.costoAsignacion(cliente, centro);
+        if (costo == InstanciaLogistica.INALCANZABLE || ultimaClave[cliente] == Long.MAX_VALUE) {
+            return costo;
+        }
+        long clave = ((long) instancia.getCostoTransporte(centro, cliente) + centrosCostos[centro][1]) << 31 | centro;
+        return clave <= ultimaClave[cliente] ? costo : InstanciaLogistica.INALCANZABLE;
+    }
+
+    private boolean esCentroViable(EstadoBusqueda estado, int centro, int cliente) {
+        return estado.estaAbierto(centro) || 
+               costosTransporte.get(centro, cliente) <= costosMinimosPorCliente[cliente] * 2;
+    }
+
+    private void evaluarSolucion(EstadoBusqueda estado) {
+        int costoActual = estado.costoAcumulado;
+        Incumbente nuevo = null;
+        while (true) {
+            Incumbente actual = incumbente.get();
+            if (actual != null && (costoActual > actual.costo ||
+                (costoActual == actual.costo && actual.precedeA(estado.camino, numNiveles)))) {
+                return;
+            }
+            if (nuevo == null) {
+                nuevo = new Incumbente(costoActual, estado.clientesAsignados.clone(), estado.camino.clone());
+            }
+            if (incumbente.compareAndSet(actual, nuevo)) {
+                long nanos = metricas.nanosDesdeInicio();
+                metricas.registrarMejora(costoActual, nanos);
+                escucha.alMejorarSolucion(costoActual, nanos);
+                return;
+            }
+        }
     }
 
     private boolean[] obtenerCentrosUtilizados() {
@@ -233,82 +741,454 @@ public class DistributionCenterOptimization {
     }
 
     private void leerDatosDeArchivo(String filename) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            numClientes = Integer.parseInt(br.readLine().split("\t")[0]);
-            numCentros = Integer.parseInt(br.readLine().split("\t")[0]);
+        try (LectorEnteros lector = new LectorEnteros(filename)) {
+            int[] datos = new int[3];
+            lector.leerLinea(datos, 1);
+            numClientes = datos[0];
+            lector.leerLinea(datos, 1);
+            numCentros = datos[0];
 
-            centrosCostos = new int[numCentros][3];
+            centrosCostos = new int[numCentros][4];
             clientesVolumen = new int[numClientes][2];
 
+            // La cuarta columna (capacidad) es opcional
             for (int i = 0; i < numCentros; i++) {
-                String[] datos = br.readLine().split(",");
-                centrosCostos[i][0] = Integer.parseInt(datos[0]);
-                centrosCostos[i][1] = Integer.parseInt(datos[1]);
-                centrosCostos[i][2] = Integer.parseInt(datos[2]);
+                if (lector.leerLinea(centrosCostos[i], 3) < 4) {
+                    centrosCostos[i][3] = InstanciaLogistica.SIN_CAPACIDAD;
+                } else if (centrosCostos[i][3] < 0) {
+                    throw new IOException("Capacidad negativa para el centro " + i);
+                }
             }
 
             for (int i = 0; i < numClientes; i++) {
-                String[] datos = br.readLine().split(",");
-                clientesVolumen[i][0] = Integer.parseInt(datos[0]);
-                clientesVolumen[i][1] = Integer.parseInt(datos[1]);
+                lector.leerLinea(clientesVolumen[i], 2);
             }
         }
     }
 
+    // Todo pasa por un buffer y se vuelca una vez, en lugar de una escritura por línea.
+    // Para instancias grandes conviene ExportadorSolucion, que escribe a un archivo
     public void imprimirSolucion() {
-        System.out.println("\n=== SOLUCIÓN ENCONTRADA ===");
-        System.out.println("Costo total: " + costoTotal);
+        PrintWriter salida = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        salida.println("\n=== SOLUCIÓN ENCONTRADA ===");
+        salida.println("Costo total: " + costoTotal);
         
-        System.out.println("\nCentros utilizados:");
+        salida.println("\nCentros utilizados:");
         boolean[] centrosUsados = obtenerCentrosUtilizados();
         for (int i = 0; i < numCentros; i++) {
             if (centrosUsados[i]) {
-                System.out.println("Centro " + i + 
+                salida.println("Centro " + i + 
                                  " (Costo fijo: " + centrosCostos[i][2] + 
-                                 ", Costo unitario puerto: " + centrosCostos[i][1] + ")");
+                                 ", Costo unitario puerto: " + centrosCostos[i][1] +
+                                 (centrosCostos[i][3] == InstanciaLogistica.SIN_CAPACIDAD ? "" :
+                                  ", Capacidad: " + centrosCostos[i][3]) + ")");
             }
         }
         
-        System.out.println("\nAsignación de clientes:");
+        salida.println("\nAsignación de clientes:");
         for (int i = 0; i < numClientes; i++) {
             if (mejorAsignacion[i] != -1) {
-                System.out.println("Cliente " + i + 
+                salida.println("Cliente " + i + 
                                  " (Volumen: " + clientesVolumen[i][1] + ") -> Centro " + 
                                  mejorAsignacion[i] + 
-                                 " (Costo transporte: " + costosTransporte[mejorAsignacion[i]][i] + ")");
+                                 " (Costo transporte: " + costosTransporte.get(mejorAsignacion[i], i) + ")");
             }
         }
+        salida.flush();
     }
-}
 
-class SolucionLogistica {
-    private final int[] asignacionClientes;
-    private final int costoTotal;
-    private final boolean[] centrosUtilizados;
+    // Estado propio de cada hilo: la asignación parcial y qué centros quedan abiertos.
+    // Los costos y las capacidades se actualizan al asignar y desasignar, así que cada
+    // nodo cuesta O(1) más lo que pida la estrategia de cota
+    private class EstadoBusqueda {
+        final int[] clientesAsignados;
+        final int[] clientesPorCentro;
+        final int[] camino;   // índice del candidato elegido en cada nivel (orden DFS)
+        final int[] clientePorNivel;
+        final CotaInferior cota;
+        int centrosAbiertos;
+        int costoAcumulado;   // costo de los clientes asignados más los fijos de los centros abiertos
+        final ContadoresBusqueda contadores = new ContadoresBusqueda(numNiveles);  // propios, no se copian
+        int expansionesSinInformar;   // para el presupuesto, tampoco se copia
 
-    public SolucionLogistica(int[] asignacionClientes, int costoTotal, boolean[] centrosUtilizados) {
-        this.asignacionClientes = asignacionClientes;
-        this.costoTotal = costoTotal;
-        this.centrosUtilizados = centrosUtilizados;
-    }
+        // Capacidades (solo se mantienen si la instancia las tiene)
+        final int[] capacidadRestante;
+        long volumenPendiente;        // volumen de los clientes sin asignar
+        long capacidadAbierta;        // lugar que queda en los centros abiertos
+        long capacidadUtil;           // lugar en todos los centros, sin contar restos donde no entra ningún cliente
+        long costoMinimoPendiente;    // suma del costo mínimo de asignación de los clientes sin asignar
 
-    public int[] getAsignacionClientes() {
-        return asignacionClientes;
-    }
+        // Centros decididos en los niveles de centros. Un centro abierto a la fuerza cuenta
+        // como un cliente más en clientesPorCentro, así queda abierto aunque no tenga clientes
+        final boolean[] centroCerrado;
+        final int[] centrosDisponibles;   // por cliente: centros de su lista que no están cerrados
+        int clientesSinCentro;
 
-    public int getCostoTotal() {
-        return costoTotal;
-    }
+        // Dominancia (solo con podaPorDominancia)
+        final int[] mejorAbierto;          // costo del cliente en su centro abierto más barato
+        final int[] centroMejorAbierto;    // ese centro (el de menor índice si empatan), -1 si no hay
+        final long[] ahorroPosible;        // por centro: suma de max(0, mejorAbierto - costo) de los sin asignar
+        final int[] clientesSinAbierto;    // por centro: clientes sin asignar que llega a atender y no tienen abierto
+        // Al abrir un centro se anota el mejorAbierto previo de cada cliente que mejoró, para
+        // deshacerlo al cerrarlo. Una fila por apertura: se abren y cierran en orden de pila
+        private final int[][] registroClientes;
+        private final int[][] registroCostos;
+        private final int[][] registroCentros;
+        private final int[] tamanoRegistro;
+
+        EstadoBusqueda(CotaInferior cota) {
+            clientesAsignados = new int[numClientes];
+            clientesPorCentro = new int[numCentros];
+            camino = new int[numNiveles];
+            clientePorNivel = new int[numNiveles];
+            Arrays.fill(clientesAsignados, -1);
+            this.cota = cota;
+
+            centroCerrado = new boolean[numCentros];
+            centrosDisponibles = new int[numClientes];
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                centrosDisponibles[cliente] = centrosOrdenadosPorCliente[cliente].length;
+            }
 
-    public boolean[] getCentrosUtilizados() {
-        return centrosUtilizados;
+            capacidadRestante = new int[numCentros];
+            for (int centro = 0; centro < numCentros; centro++) {
+                capacidadRestante[centro] = instancia.getCapacidad(centro);
+                capacidadUtil += lugarUtil(capacidadRestante[centro]);
+            }
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                volumenPendiente += instancia.getVolumen(cliente);
+                costoMinimoPendiente += (long) costosMinimosPorCliente[cliente] * instancia.getVolumen(cliente);
+            }
+
+            mejorAbierto = new int[numClientes];
+            ahorroPosible = new long[numCentros];
+            clientesSinAbierto = new int[numCentros];
+            centroMejorAbierto = new int[numClientes];
+            Arrays.fill(mejorAbierto, InstanciaLogistica.INALCANZABLE);
+            Arrays.fill(centroMejorAbierto, -1);
+            if (podaPorDominancia) {
+                for (int cliente = 0; cliente < numClientes; cliente++) {
+                    sumarAhorro(cliente, 1);
+                }
+            }
+            registroClientes = new int[numCentros][];
+            registroCostos = new int[numCentros][];
+            registroCentros = new int[numCentros][];
+            tamanoRegistro = new int[numCentros];
+        }
+
+        EstadoBusqueda(EstadoBusqueda otro) {
+            clientesAsignados = otro.clientesAsignados.clone();
+            clientesPorCentro = otro.clientesPorCentro.clone();
+            camino = otro.camino.clone();
+            clientePorNivel = otro.clientePorNivel.clone();
+            cota = otro.cota.copiar();
+            centrosAbiertos = otro.centrosAbiertos;
+            costoAcumulado = otro.costoAcumulado;
+            capacidadRestante = otro.capacidadRestante.clone();
+            volumenPendiente = otro.volumenPendiente;
+            capacidadAbierta = otro.capacidadAbierta;
+            capacidadUtil = otro.capacidadUtil;
+            costoMinimoPendiente = otro.costoMinimoPendiente;
+            centroCerrado = otro.centroCerrado.clone();
+            centrosDisponibles = otro.centrosDisponibles.clone();
+            clientesSinCentro = otro.clientesSinCentro;
+            mejorAbierto = otro.mejorAbierto.clone();
+            centroMejorAbierto = otro.centroMejorAbierto.clone();
+            ahorroPosible = otro.ahorroPosible.clone();
+            clientesSinAbierto = otro.clientesSinAbierto.clone();
+            // Una copia nunca cierra centros que abrió el original: el registro empieza vacío
+            registroClientes = new int[numCentros][];
+            registroCostos = new int[numCentros][];
+            registroCentros = new int[numCentros][];
+            tamanoRegistro = new int[numCentros];
+        }
+
+        void asignar(int nivel, int cliente, int centro, int rango) {
+            clientesAsignados[cliente] = centro;
+            clientePorNivel[nivel] = cliente;
+            camino[nivel] = rango;
+            boolean abre = clientesPorCentro[centro]++ == 0;
+            if (abre) {
+                centrosAbiertos++;
+                costoAcumulado += centrosCostos[centro][2];
+            }
+            costoAcumulado += instancia.costoAsignacion(cliente, centro);
+            cota.asignar(cliente, centro, abre);
+
+            if (podaPorDominancia) {
+                sumarAhorro(cliente, -1);
+                if (abre) {
+                    mejorarAbiertos(centro);
+                }
+            }
+
+            if (instancia.esCapacitada()) {
+                int volumen = instancia.getVolumen(cliente);
+                int antes = capacidadRestante[centro];
+                capacidadRestante[centro] = antes - volumen;
+                capacidadUtil += lugarUtil(antes - volumen) - lugarUtil(antes);
+                capacidadAbierta += abre ? antes - volumen : -volumen;
+                volumenPendiente -= volumen;
+                costoMinimoPendiente -= (long) costosMinimosPorCliente[cliente] * volumen;
+            }
+        }
+
+        void desasignar(int nivel) {
+            int cliente = clientePorNivel[nivel];
+            int centro = clientesAsignados[cliente];
+            clientesAsignados[cliente] = -1;
+            boolean cierra = --clientesPorCentro[centro] == 0;
+            if (cierra) {
+                centrosAbiertos--;
+                costoAcumulado -= centrosCostos[centro][2];
+            }
+            costoAcumulado -= instancia.costoAsignacion(cliente, centro);
+            cota.desasignar(cliente, centro, cierra);
+
+            if (podaPorDominancia) {
+                if (cierra) {
+                    restaurarAbiertos();
+                }
+                sumarAhorro(cliente, 1);
+            }
+
+            if (instancia.esCapacitada()) {
+                int volumen = instancia.getVolumen(cliente);
+                int antes = capacidadRestante[centro];
+                capacidadRestante[centro] = antes + volumen;
+                capacidadUtil += lugarUtil(antes + volumen) - lugarUtil(antes);
+                capacidadAbierta -= cierra ? antes : -volumen;
+                volumenPendiente += volumen;
+                costoMinimoPendiente += (long) costosMinimosPorCliente[cliente] * volumen;
+            }
+        }
+
+        // Nivel de centros: abierto paga el costo fijo y queda disponible para todos; cerrado
+        // no se puede usar en todo el subárbol. Se hace antes de asignar cualquier cliente
+        void fijarCentro(int nivel, int centro, boolean abierto) {
+            camino[nivel] = abierto ? 0 : 1;
+            cota.fijarCentro(centro, abierto);
+            if (abierto) {
+                clientesPorCentro[centro]++;
+                centrosAbiertos++;
+                costoAcumulado += centrosCostos[centro][2];
+                capacidadAbierta += capacidadRestante[centro];
+                if (podaPorDominancia) {
+                    mejorarAbiertos(centro);
+                }
+                return;
+            }
+            centroCerrado[centro] = true;
+            capacidadUtil -= lugarUtil(capacidadRestante[centro]);
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                if (costoCandidato(cliente, centro) != InstanciaLogistica.INALCANZABLE &&
+                    --centrosDisponibles[cliente] == 0 &&
+                    clientesAsignados[cliente] == -1) {
+                    clientesSinCentro++;
+                }
+            }
+        }
+
+        void liberarCentro(int nivel, int centro, boolean abierto) {
+            cota.liberarCentro(centro, abierto);
+            if (abierto) {
+                clientesPorCentro[centro]--;
+                centrosAbiertos--;
+                costoAcumulado -= centrosCostos[centro][2];
+                capacidadAbierta -= capacidadRestante[centro];
+                if (podaPorDominancia) {
+                    restaurarAbiertos();
+                }
+                return;
+            }
+            centroCerrado[centro] = false;
+            capacidadUtil += lugarUtil(capacidadRestante[centro]);
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                if (costoCandidato(cliente, centro) != InstanciaLogistica.INALCANZABLE &&
+                    centrosDisponibles[cliente]++ == 0 &&
+                    clientesAsignados[cliente] == -1) {
+                    clientesSinCentro--;
+                }
+            }
+        }
+
+        // Suma (signo 1) o resta (signo -1) el aporte del cliente al ahorro posible de cada centro
+        private void sumarAhorro(int cliente, int signo) {
+            int mejor = mejorAbierto[cliente];
+            for (int centro : centrosOrdenadosPorCliente[cliente]) {
+                int costo = instancia.costoAsignacion(cliente, centro);
+                if (mejor == InstanciaLogistica.INALCANZABLE) {
+                    clientesSinAbierto[centro] += signo;
+                } else if (costo < mejor) {
+                    ahorroPosible[centro] += signo * (long) (mejor - costo);
+                }
+            }
+        }
+
+        // El centro recién abierto puede ser el mejor abierto de los clientes sin asignar
+        private void mejorarAbiertos(int centro) {
+            int apertura = centrosAbiertos - 1;
+            if (registroClientes[apertura] == null) {
+                registroClientes[apertura] = new int[numClientes];
+                registroCostos[apertura] = new int[numClientes];
+                registroCentros[apertura] = new int[numClientes];
+            }
+            int cantidad = 0;
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                if (clientesAsignados[cliente] != -1) {
+                    continue;
+                }
+                int costo = costoCandidato(cliente, centro);
+                if (costo < mejorAbierto[cliente] ||
+                    (costo == mejorAbierto[cliente] && costo != InstanciaLogistica.INALCANZABLE &&
+                     centro < centroMejorAbierto[cliente])) {
+                    registroClientes[apertura][cantidad] = cliente;
+                    registroCostos[apertura][cantidad] = mejorAbierto[cliente];
+                    registroCentros[apertura][cantidad] = centroMejorAbierto[cliente];
+                    cantidad++;
+                    sumarAhorro(cliente, -1);
+                    mejorAbierto[cliente] = costo;
+                    centroMejorAbierto[cliente] = centro;
+                    sumarAhorro(cliente, 1);
+                }
+            }
+            tamanoRegistro[apertura] = cantidad;
+        }
+
+        private void restaurarAbiertos() {
+            int apertura = centrosAbiertos;
+            for (int i = tamanoRegistro[apertura] - 1; i >= 0; i--) {
+                int cliente = registroClientes[apertura][i];
+                sumarAhorro(cliente, -1);
+                mejorAbierto[cliente] = registroCostos[apertura][i];
+                centroMejorAbierto[cliente] = registroCentros[apertura][i];
+                sumarAhorro(cliente, 1);
+            }
+            tamanoRegistro[apertura] = 0;
+        }
+
+        int cotaInferior() {
+            int cotaEstrategia = costoAcumulado + cota.valor();
+            if (!instancia.esCapacitada() || volumenPendiente <= capacidadAbierta) {
+                return cotaEstrategia;
+            }
+            long cotaCapacidad = costoAcumulado + costoMinimoPendiente + costoFijoFaltante();
+            return (int) Math.max(cotaEstrategia, Math.min(Integer.MAX_VALUE, cotaCapacidad));
+        }
+
+        // El volumen que no entra en los centros abiertos obliga a abrir otros. Mochila
+        // fraccionaria sobre los cerrados: se toman por costo fijo por unidad de capacidad
+        private long costoFijoFaltante() {
+            long faltante = volumenPendiente - capacidadAbierta;
+            long costo = 0;
+            for (int centro : centrosPorCostoDeCapacidad) {
+                if (estaAbierto(centro) || centroCerrado[centro] || capacidadRestante[centro] == 0) {
+                    continue;
+                }
+                int capacidad = capacidadRestante[centro];
+                if (capacidad >= faltante) {
+                    return costo + (long) Math.floor((double) centrosCostos[centro][2] * faltante / capacidad);
+                }
+                costo += centrosCostos[centro][2];
+                faltante -= capacidad;
+            }
+            return Integer.MAX_VALUE;
+        }
+
+        // Un resto menor que el volumen del cliente más chico no sirve para nadie
+        private long lugarUtil(int capacidad) {
+            return capacidad >= volumenMinimo ? capacidad : 0;
+        }
+
+        boolean estaAbierto(int centro) {
+            return clientesPorCentro[centro] > 0;
+        }
     }
 
-    public int getCentroAsignadoCliente(int cliente) {
-        return asignacionClientes[cliente];
+    private static final class Incumbente {
+        final int costo;
+        final int[] asignacion;
+        final int[] camino;
+
+        Incumbente(int costo, int[] asignacion, int[] camino) {
+            this.costo = costo;
+            this.asignacion = asignacion;
+            this.camino = camino;
+        }
+
+        // true si este incumbente está estrictamente antes en el orden DFS que el prefijo dado
+        // Un incumbente sin camino (el del arranque heurístico) va después de todo
+        boolean precedeA(int[] otroCamino, int longitud) {
+            if (camino == null) {
+                return false;
+            }
+            for (int i = 0; i < longitud; i++) {
+                if (camino[i] != otroCamino[i]) {
+                    return camino[i] < otroCamino[i];
+                }
+            }
+            return false;
+        }
     }
 
-    public boolean isCentroUtilizado(int centro) {
-        return centrosUtilizados[centro];
+    // Expande en paralelo los primeros niveles del árbol; debajo de ellos cada
+    // tarea sigue con el backtracking secuencial sobre su propio estado. Nunca se serializa
+    @SuppressWarnings("serial")
+    private class TareaRamificacion extends RecursiveAction {
+        private final EstadoBusqueda estado;
+        private final int nivel;
+        private final int nivelesParalelos;
+
+        TareaRamificacion(EstadoBusqueda estado, int nivel, int nivelesParalelos) {
+            this.estado = estado;
+            this.nivel = nivel;
+            this.nivelesParalelos = nivelesParalelos;
+        }
+
+        @Override
+        protected void compute() {
+            if (nivel >= nivelesParalelos || nivel == numNiveles) {
+                backtracking(estado, nivel);
+                if (presupuesto.tieneLimite()) {
+                    informarExpansiones(estado);
+                }
+                metricas.sumar(estado.contadores);
+                return;
+            }
+
+            estado.contadores.nodos++;
+            estado.contadores.nodosPorProfundidad[nivel]++;
+            List<TareaRamificacion> subtareas = new ArrayList<>();
+            if (detenido) {
+                abandonar(estado);
+            } else if (!esInfactible(estado) && !debePodar(estado, nivel)) {
+                if (nivel < nivelesCentros) {
+                    int centro = ordenCentros[nivel];
+                    for (boolean abierto : new boolean[] {true, false}) {
+                        if (!abierto || sePuedeAbrir(estado, centro)) {
+                            EstadoBusqueda hijo = new EstadoBusqueda(estado);
+                            hijo.fijarCentro(nivel, centro, abierto);
+                            subtareas.add(new TareaRamificacion(hijo, nivel + 1, nivelesParalelos));
+                        }
+                    }
+                } else {
+                    int cliente = elegirCliente(estado, nivel);
+                    int[] candidatos = centrosOrdenadosPorCliente[cliente];
+                    for (int i = 0, probados = 0; i < candidatos.length && probados < candidatosPorNivel; i++) {
+                        int centro = candidatos[i];
+
+                        if (esCandidato(estado, centro, cliente)) {
+                            probados++;
+                            EstadoBusqueda hijo = new EstadoBusqueda(estado);
+                            hijo.asignar(nivel, cliente, centro, i);
+                            subtareas.add(new TareaRamificacion(hijo, nivel + 1, nivelesParalelos));
+                        }
+                    }
+                }
+            }
+            metricas.sumar(estado.contadores);
+            invokeAll(subtareas);
+        }
     }
 }
\ No newline at end of file
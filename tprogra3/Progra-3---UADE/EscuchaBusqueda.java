@@ -0,0 +1,25 @@
+// Recibe avisos de una búsqueda del optimizador. alMejorarSolucion se llama desde el
+// hilo que encontró la mejora (puede ser cualquiera del pool) y debe volver rápido;
+// alTerminar se llama una vez, al final, desde el hilo que llamó a optimizar.
+public interface EscuchaBusqueda {
+    default void alMejorarSolucion(int costo, long nanosDesdeInicio) {
+    }
+
+    default void alTerminar(MetricasBusqueda metricas) {
+    }
+
+    // Imprime el resumen al final de la búsqueda, fuera del camino caliente
+    static EscuchaBusqueda consola() {
+        return new EscuchaBusqueda() {
+            @Override
+            public void alTerminar(MetricasBusqueda metricas) {
+                for (MetricasBusqueda.Mejora mejora : metricas.getMejoras()) {
+                    System.out.printf("Nueva mejor solución encontrada con costo: %d (%.1f ms)%n",
+                                      mejora.costo, mejora.nanos / 1e6);
+                }
+                System.out.println("Nodos expandidos: " + metricas.getNodosExpandidos() +
+                                   ", podas por cota: " + metricas.getPodasCota());
+            }
+        };
+    }
+}
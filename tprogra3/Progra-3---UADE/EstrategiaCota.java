@@ -0,0 +1,13 @@
+// Forma de acotar inferiormente el costo de los clientes que quedan sin asignar.
+// El optimizador crea una CotaInferior por búsqueda y la copia para cada hilo
+interface EstrategiaCota {
+    CotaInferior crear(InstanciaLogistica instancia);
+
+    static EstrategiaCota simple() {
+        return CotaSimple::new;
+    }
+
+    static EstrategiaCota lagrangiana() {
+        return CotaLagrangiana::new;
+    }
+}
@@ -0,0 +1,17 @@
+// Cómo elige el backtracking la próxima decisión de cada nivel del árbol
+public enum EstrategiaRamificacion {
+    // Un cliente por nivel en orden fijo: el del archivo, o de mayor a menor volumen si
+    // hay capacidades
+    ORDEN_ENTRADA,
+
+    // Primero se decide abrir o cerrar cada centro (de menor a mayor costo fijo) y después
+    // se asignan los clientes a los abiertos. Sin capacidades, con los centros decididos
+    // cada cliente va directo a su mejor abierto. Con capacidades suele ser peor: la
+    // asignación de clientes sigue siendo la parte difícil y se repite por cada subconjunto
+    CENTROS_PRIMERO,
+
+    // En cada nodo se asigna el cliente con más arrepentimiento: la diferencia entre su
+    // mejor y su segundo mejor centro posible, en costo total (ya multiplicado por el
+    // volumen). Los clientes con una sola opción van primero
+    MAYOR_ARREPENTIMIENTO
+}
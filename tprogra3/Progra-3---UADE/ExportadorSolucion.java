@@ -0,0 +1,108 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+// Escribe la asignación de cada cliente con su ruta a medida que la recorre, sin armar el
+// archivo en memoria: sirve igual para 50 clientes que para un millón.
+//
+// CSV: cliente,centro,costoRuta,ruta  (ruta: nodos del centro al cliente separados por espacios;
+//      costoRuta vacío si el centro no llega al cliente)
+//
+// BINARIO: enteros de 4 bytes big endian (como CacheMatrizCostos) salvo las rutas:
+//   MAGICO, VERSION, clientes, costoTotal
+//   por cliente: centro, costoRuta, largo de la ruta y sus nodos
+// Las rutas van como varints: el primer nodo tal cual y cada uno de los siguientes como
+// diferencia con el anterior (zigzag). En una red con nodos numerados por cercanía casi
+// todas las diferencias ocupan un byte.
+public class ExportadorSolucion {
+    public enum Formato {
+        CSV,
+        BINARIO
+    }
+
+    static final int MAGICO = 0x534F4C55; // "SOLU"
+    static final int VERSION = 1;
+
+    private ExportadorSolucion() {
+    }
+
+    public static void exportar(Path archivo, Formato formato, SolucionLogistica solucion, RutasSolucion rutas)
+            throws IOException {
+        try (OutputStream salida = Files.newOutputStream(archivo)) {
+            exportar(salida, formato, solucion, rutas);
+        }
+    }
+
+    // No cierra salida
+    public static void exportar(OutputStream salida, Formato formato, SolucionLogistica solucion,
+                                RutasSolucion rutas) throws IOException {
+        if (rutas.getNumClientes() != solucion.getAsignacionClientes().length) {
+            throw new IllegalArgumentException("Las rutas no son de esta solución");
+        }
+        if (formato == Formato.CSV) {
+            exportarCsv(salida, rutas);
+        } else {
+            exportarBinario(salida, solucion, rutas);
+        }
+    }
+
+    private static void exportarCsv(OutputStream salida, RutasSolucion rutas) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 1 << 16);
+        escritor.write("cliente,centro,costoRuta,ruta\n");
+        StringBuilder linea = new StringBuilder();
+        int[] ruta = new int[16];
+        for (int cliente = 0; cliente < rutas.getNumClientes(); cliente++) {
+            ruta = lugarPara(ruta, rutas.getLargoRuta(cliente));
+            int largo = rutas.getRuta(cliente, ruta);
+            linea.setLength(0);
+            linea.append(cliente).append(',').append(rutas.getCentro(cliente)).append(',');
+            if (rutas.getCostoRuta(cliente) != Integer.MAX_VALUE) {
+                linea.append(rutas.getCostoRuta(cliente));
+            }
+            linea.append(',');
+            for (int i = 0; i < largo; i++) {
+                linea.append(i == 0 ? "" : " ").append(ruta[i]);
+            }
+            linea.append('\n');
+            escritor.append(linea);
+        }
+        escritor.flush();
+    }
+
+    private static void exportarBinario(OutputStream salida, SolucionLogistica solucion, RutasSolucion rutas)
+            throws IOException {
+        DataOutputStream datos = new DataOutputStream(new BufferedOutputStream(salida, 1 << 16));
+        datos.writeInt(MAGICO);
+        datos.writeInt(VERSION);
+        datos.writeInt(rutas.getNumClientes());
+        datos.writeInt(solucion.getCostoTotal());
+        int[] ruta = new int[16];
+        for (int cliente = 0; cliente < rutas.getNumClientes(); cliente++) {
+            ruta = lugarPara(ruta, rutas.getLargoRuta(cliente));
+            int largo = rutas.getRuta(cliente, ruta);
+            datos.writeInt(rutas.getCentro(cliente));
+            datos.writeInt(rutas.getCostoRuta(cliente));
+            escribirVarint(datos, largo);
+            int anterior = 0;
+            for (int i = 0; i < largo; i++) {
+                int diferencia = ruta[i] - anterior;
+                escribirVarint(datos, i == 0 ? ruta[i] : (diferencia << 1) ^ (diferencia >> 31));
+                anterior = ruta[i];
+            }
+        }
+        datos.flush();
+    }
+
+    // 7 bits por byte, el bit alto indica que sigue otro
+    private static void escribirVarint(DataOutputStream datos, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            datos.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos.writeByte(valor);
+    }
+
+    private static int[] lugarPara(int[] arreglo, int largo) {
+        return largo <= arreglo.length ? arreglo : new int[Math.max(largo, arreglo.length * 2)];
+    }
+}
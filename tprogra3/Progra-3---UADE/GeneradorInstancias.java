@@ -0,0 +1,120 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Genera instancias sintéticas con el mismo formato que rutas.txt y clientesYCentros.txt.
+// Los nodos 0..clientes-1 son clientes, los siguientes 'centros' son centros y el resto
+// son nodos intermedios de la red. Un anillo bidireccional garantiza que todo sea alcanzable
+// y después se agregan aristas al azar hasta llegar a la densidad pedida (aristas por nodo).
+// Con holguraCapacidad > 0 cada centro lleva capacidad: la capacidad total es esa fracción
+// del volumen total (1.5 = 50% de sobra), repartida al azar entre los centros.
+public class GeneradorInstancias {
+    private final int numNodos;
+    private final double densidad;
+    private final int numClientes;
+    private final int numCentros;
+    private final long semilla;
+    private final double holguraCapacidad;
+
+    public GeneradorInstancias(int numNodos, double densidad, int numClientes, int numCentros, long semilla) {
+        this(numNodos, densidad, numClientes, numCentros, semilla, 0);
+    }
+
+    public GeneradorInstancias(int numNodos, double densidad, int numClientes, int numCentros, long semilla,
+                               double holguraCapacidad) {
+        if (numClientes + numCentros > numNodos) {
+            throw new IllegalArgumentException("Hacen falta al menos " + (numClientes + numCentros) + " nodos");
+        }
+        this.numNodos = numNodos;
+        this.densidad = densidad;
+        this.numClientes = numClientes;
+        this.numCentros = numCentros;
+        this.semilla = semilla;
+        this.holguraCapacidad = holguraCapacidad;
+    }
+
+    public int getNumNodos() {
+        return numNodos;
+    }
+
+    public int getNumClientes() {
+        return numClientes;
+    }
+
+    public int getNumCentros() {
+        return numCentros;
+    }
+
+    public int[] getCentros() {
+        return CostMatrixBuilder.rango(numClientes, numCentros);
+    }
+
+    public int[] getClientes() {
+        return CostMatrixBuilder.rango(0, numClientes);
+    }
+
+    public void escribirRutas(Path archivo) throws IOException {
+        Random random = new Random(semilla);
+        long totalRutas = Math.max(2L * numNodos, (long) (densidad * numNodos));
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo)) {
+            salida.write(totalRutas + "\t#Total de rutas\n");
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                int siguiente = (nodo + 1) % numNodos;
+                int costo = 1 + random.nextInt(20);
+                escribirRuta(salida, nodo, siguiente, costo);
+                escribirRuta(salida, siguiente, nodo, costo);
+            }
+            for (long i = 2L * numNodos; i < totalRutas; i++) {
+                escribirRuta(salida, random.nextInt(numNodos), random.nextInt(numNodos), 1 + random.nextInt(50));
+            }
+        }
+    }
+
+    public void escribirClientesYCentros(Path archivo) throws IOException {
+        Random random = new Random(semilla * 31 + 7);
+        int[][] centros = new int[numCentros][2];
+        for (int[] centro : centros) {
+            centro[0] = 1 + random.nextInt(3);
+            centro[1] = 500 + random.nextInt(2500);
+        }
+        int[] volumenes = new int[numClientes];
+        long volumenTotal = 0;
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            volumenes[cliente] = 1 + random.nextInt(20);
+            volumenTotal += volumenes[cliente];
+        }
+
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo)) {
+            salida.write(numClientes + "\t#Clientes\n");
+            salida.write(numCentros + "\t#Centros\n");
+            int[] capacidades = holguraCapacidad > 0 ? repartirCapacidad(volumenTotal) : null;
+            for (int centro = 0; centro < numCentros; centro++) {
+                salida.write(centro + "," + centros[centro][0] + "," + centros[centro][1] +
+                             (capacidades == null ? "" : "," + capacidades[centro]) + "\n");
+            }
+            for (int cliente = 0; cliente < numClientes; cliente++) {
+                salida.write(cliente + "," + volumenes[cliente] + "\n");
+            }
+        }
+    }
+
+    // Cada centro recibe entre la mitad y el 150% de la parte que le tocaría en un reparto parejo
+    private int[] repartirCapacidad(long volumenTotal) {
+        Random random = new Random(semilla * 31 + 11);
+        double parte = holguraCapacidad * volumenTotal / numCentros;
+        int[] capacidades = new int[numCentros];
+        for (int centro = 0; centro < numCentros; centro++) {
+            capacidades[centro] = (int) Math.ceil(parte * (0.5 + random.nextDouble()));
+        }
+        return capacidades;
+    }
+
+    private static void escribirRuta(BufferedWriter salida, int origen, int destino, int costo) throws IOException {
+        salida.write(Integer.toString(origen));
+        salida.write(',');
+        salida.write(Integer.toString(destino));
+        salida.write(',');
+        salida.write(Integer.toString(costo));
+        salida.write('\n');
+    }
+}
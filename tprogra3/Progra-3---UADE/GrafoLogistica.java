@@ -1,9 +1,9 @@
 import java.io.*;
 import java.util.*;
 
-public class GrafoLogistica {
-    // Clase interna para representar las conexiones
-    public class Arista {
+public final class GrafoLogistica {
+    // Conexión hacia un vecino; solo la usa la API que devuelve listas
+    public static class Arista {
         int destino;
         int costo;
 
@@ -13,110 +13,184 @@ public class GrafoLogistica {
         }
     }
 
-    public ArrayList<ArrayList<Arista>> listaAdyacencia; // Lista de conexiones
     public int numNodos;  // Total de nodos (clientes + centros)
 
+    // Formato CSR: las aristas que salen de un nodo ocupan [inicios[nodo], inicios[nodo + 1])
+    // en destinos y costos, en el mismo orden en que se agregaron. Solo cambian al agregar
+    // rutas, nunca al consultar: las consultas se pueden hacer desde varios hilos mientras
+    // nadie modifique el grafo
+    private int[] inicios;
+    private int[] destinos;
+    private int[] costos;
+    private boolean silencioso;
+
     public GrafoLogistica(int numNodos) {
+        this(numNodos, new int[numNodos + 1], new int[0], new int[0]);
+    }
+
+    private GrafoLogistica(int numNodos, int[] inicios, int[] destinos, int[] costos) {
         this.numNodos = numNodos;
-        // Inicializa la lista de adyacencia
-        listaAdyacencia = new ArrayList<>(numNodos);
-        // Crea una lista vacía para cada nodo
-        for (int i = 0; i < numNodos; i++) {
-            listaAdyacencia.add(new ArrayList<>());
-        }
+        this.inicios = inicios;
+        this.destinos = destinos;
+        this.costos = costos;
     }
 
+    // Sin los mensajes de progreso de cargarRutas; los errores de lectura se informan igual
+    public void setSilencioso(boolean silencioso) {
+        this.silencioso = silencioso;
+    }
+
+    // Las rutas del archivo se juntan aparte y se pasan al CSR una sola vez al terminar
     public void cargarRutas(String rutasFile) {
-        try (BufferedReader br = new BufferedReader(new FileReader(rutasFile))) {
+        Constructor nuevas = new Constructor(numNodos);
+        try (LectorEnteros lector = new LectorEnteros(rutasFile)) {
+            int[] datos = new int[3];
             // Lee la primera línea que contiene el total de rutas
-            int totalRutas = Integer.parseInt(br.readLine().split("\t")[0]);
-            System.out.println("Total de rutas a cargar: " + totalRutas);
+            if (lector.leerLinea(datos) < 1) {
+                return;
+            }
+            int totalRutas = datos[0];
+            informar("Total de rutas a cargar: " + totalRutas);
+            nuevas.reservar(totalRutas);
 
-            String linea;
             int rutasCargadas = 0;
-            // Lee cada línea del archivo
-            while ((linea = br.readLine()) != null) {
-                String[] datos = linea.split(",");
-                if (datos.length == 3) {
-                    // Extrae origen, destino y costo
-                    int origen = Integer.parseInt(datos[0]);
-                    int destino = Integer.parseInt(datos[1]);
-                    int costo = Integer.parseInt(datos[2]);
-
-                    // Agrega la ruta al grafo
-                    agregarRuta(origen, destino, costo);
+            int cantidad;
+            // Lee cada línea del archivo: origen, destino y costo
+            while ((cantidad = lector.leerLinea(datos)) != -1) {
+                if (cantidad == 3) {
+                    nuevas.agregarRuta(datos[0], datos[1], datos[2]);
                     rutasCargadas++;
                 }
             }
-            System.out.println("Rutas cargadas exitosamente: " + rutasCargadas);
+            informar("Rutas cargadas exitosamente: " + rutasCargadas);
         } catch (IOException e) {
             System.err.println("Error al leer el archivo de rutas: " + e.getMessage());
         }
+        // Si el archivo falla a mitad de camino quedan las rutas leídas hasta ahí
+        incorporar(nuevas);
     }
 
+    private void informar(String mensaje) {
+        if (!silencioso) {
+            System.out.println(mensaje);
+        }
+    }
+
+    // La ruta queda en el CSR enseguida, lo que copia el grafo entero. Para muchas rutas
+    // conviene cargarRutas o armar el grafo con un Constructor
     public void agregarRuta(int origen, int destino, int costo) {
-        // Agrega una nueva arista a la lista de adyacencia del nodo origen
-        listaAdyacencia.get(origen).add(new Arista(destino, costo));
+        incorporar(new Constructor(numNodos, 1).agregarRuta(origen, destino, costo));
     }
 
-    // Obtener todos los vecinos de un nodo
+    // Cambia el costo de una ruta existente sin reconstruir el CSR. Si la ruta no existe
+    // la agrega. Devuelve el costo anterior, o -1 si la ruta es nueva.
+    // Si hay rutas paralelas entre origen y destino se cambia la más barata, que es la única
+    // que usa un camino mínimo: el costo anterior devuelto es el costo efectivo de la conexión
+    // (lo que necesita DistanciasDinamicas) y las demás paralelas quedan como estaban
+    public int actualizarCostoRuta(int origen, int destino, int costo) {
+        int arista = buscarArista(origen, destino);
+        if (arista == -1) {
+            agregarRuta(origen, destino, costo);
+            return -1;
+        }
+        int anterior = costos[arista];
+        costos[arista] = costo;
+        return anterior;
+    }
+
+    // Obtener todos los vecinos de un nodo. Crea una Arista por vecino: para recorridos
+    // frecuentes conviene primeraArista/finAristas, que no reservan memoria
     public List<Arista> getVecinos(int nodo) {
-        return listaAdyacencia.get(nodo);
+        List<Arista> vecinos = new ArrayList<>(inicios[nodo + 1] - inicios[nodo]);
+        for (int arista = inicios[nodo]; arista < inicios[nodo + 1]; arista++) {
+            vecinos.add(new Arista(destinos[arista], costos[arista]));
+        }
+        return vecinos;
+    }
+
+    // Recorrido sin reservar memoria:
+    //   for (int a = grafo.primeraArista(n); a < grafo.finAristas(n); a++) { grafo.destinoArista(a) ... }
+    public int primeraArista(int nodo) {
+        return inicios[nodo];
+    }
+
+    public int finAristas(int nodo) {
+        return inicios[nodo + 1];
+    }
+
+    public int destinoArista(int arista) {
+        return destinos[arista];
+    }
+
+    public int costoArista(int arista) {
+        return costos[arista];
+    }
+
+    public int getNumRutas() {
+        return destinos.length;
     }
 
     // Verificar si existe una conexión directa entre dos nodos
     public boolean existeRutaDirecta(int origen, int destino) {
-        for (Arista arista : listaAdyacencia.get(origen)) {
-            if (arista.destino == destino) {
-                return true;
-            }
-        }
-        return false;
+        return buscarArista(origen, destino) != -1;
     }
 
-    // Obtener el costo entre dos nodos conectados
+    // Obtener el costo entre dos nodos conectados (el de la ruta más barata si hay paralelas)
     public int getCosto(int origen, int destino) {
-        for (Arista arista : listaAdyacencia.get(origen)) {
-            if (arista.destino == destino) {
-                return arista.costo;
+        int arista = buscarArista(origen, destino);
+        return arista == -1 ? -1 : costos[arista]; // -1 si no existe conexión directa
+    }
+
+    // La arista más barata de origen a destino, o -1 si no hay ninguna
+    private int buscarArista(int origen, int destino) {
+        int mejor = -1;
+        for (int arista = inicios[origen]; arista < inicios[origen + 1]; arista++) {
+            if (destinos[arista] == destino && (mejor == -1 || costos[arista] < costos[mejor])) {
+                mejor = arista;
             }
         }
-        return -1; // Si no existe conexión directa
+        return mejor;
     }
 
-    // Método para calcular costos desde un centro de distribución hacia todos los clientes
-    public int[] dijkstraDesdeCentro(int centro) {
-        // Verifica que el nodo de origen sea un centro de distribución
-        if (centro < 50 || centro > 57) {
-            throw new IllegalArgumentException("El nodo debe ser un centro de distribución (50-57).");
+    // Pasa las rutas del constructor al CSR conservando el orden de los vecinos. Lo llama
+    // solo quien modifica el grafo; el grafo no se debe modificar mientras otros hilos lo consultan
+    private void incorporar(Constructor nuevas) {
+        if (nuevas.cantidad == 0) {
+            return;
         }
+        GrafoLogistica nuevo = nuevas.construir(inicios, destinos, costos);
+        this.inicios = nuevo.inicios;
+        this.destinos = nuevo.destinos;
+        this.costos = nuevo.costos;
+    }
 
-        // Arreglo para almacenar el costo mínimo desde el centro a cada cliente
-        int[] costoMinimo = new int[numNodos];
-        Arrays.fill(costoMinimo, Integer.MAX_VALUE); // Inicializa con costos infinitos
-        costoMinimo[centro] = 0; // Costo del nodo origen a sí mismo es 0
-
-        // Cola de prioridad para seleccionar el nodo con el costo más bajo
-        PriorityQueue<Arista> cola = new PriorityQueue<>(Comparator.comparingInt(arista -> arista.costo));
-        cola.add(new Arista(centro, 0));
-
-        while (!cola.isEmpty()) {
-            Arista nodoActual = cola.poll();
-            int nodoId = nodoActual.destino;
-
-            // Explorar los vecinos del nodo actual
-            for (Arista vecino : getVecinos(nodoId)) {
-                int nuevoCosto = costoMinimo[nodoId] + vecino.costo;
+    // Método para calcular costos desde un centro de distribución hacia todos los nodos.
+    // Acepta cualquier nodo como origen: qué nodos son centros lo decide quien llama.
+    // Cada llamada crea su motor (y su montículo); para muchas búsquedas conviene que quien
+    // llama tenga su propio MotorDijkstra, como CostMatrixBuilder. El grafo no guarda motores:
+    // uno por hilo lo dejaría vivo mientras vivan los hilos que lo usaron
+    public int[] dijkstraDesdeCentro(int centro) {
+        Objects.checkIndex(centro, numNodos);
+        return new MotorDijkstra(this).calcular(centro); // Devuelve el arreglo de costos mínimos hacia todos los nodos
+    }
 
-                // Si encontramos un costo más bajo, actualizamos el arreglo y la cola
-                if (nuevoCosto < costoMinimo[vecino.destino]) {
-                    costoMinimo[vecino.destino] = nuevoCosto;
-                    cola.add(new Arista(vecino.destino, nuevoCosto));
-                }
-            }
+    // Costos desde origen solo hacia los objetivos (resultado[i] para objetivos[i]); la
+    // búsqueda termina cuando se alcanzaron todos en vez de recorrer el grafo entero.
+    // Como dijkstraDesdeCentro, crea un motor por llamada
+    public int[] dijkstraHacia(int origen, int[] objetivos) {
+        Objects.checkIndex(origen, numNodos);
+        for (int objetivo : objetivos) {
+            Objects.checkIndex(objetivo, numNodos);
         }
+        int[] costos = new int[objetivos.length];
+        new MotorDijkstra(this).calcularHacia(origen, objetivos, costos);
+        return costos;
+    }
 
-        return costoMinimo; // Devuelve el arreglo de costos mínimos hacia todos los nodos
+    // Preprocesamiento opcional para muchas consultas sobre la misma red. Hay que volver
+    // a construirla si después se agregan rutas o cambian sus costos
+    public JerarquiaContracciones construirJerarquia() {
+        return new JerarquiaContracciones(this);
     }
 
     public void imprimirCostos(int[] costos) {
@@ -129,4 +203,89 @@ public class GrafoLogistica {
             }
         }
     }
+
+    // Arma un grafo en formato CSR a partir de rutas sueltas. Las rutas se guardan en
+    // arreglos primitivos y recién al construir se ordenan por origen (counting sort)
+    public static class Constructor {
+        private final int numNodos;
+        private int[] origenes;
+        private int[] destinos;
+        private int[] costos;
+        private int cantidad;
+
+        public Constructor(int numNodos) {
+            this(numNodos, 16);
+        }
+
+        public Constructor(int numNodos, int capacidadRutas) {
+            this.numNodos = numNodos;
+            int capacidad = Math.max(1, capacidadRutas);
+            this.origenes = new int[capacidad];
+            this.destinos = new int[capacidad];
+            this.costos = new int[capacidad];
+        }
+
+        // Agranda los arreglos de una vez cuando se conoce cuántas rutas vienen
+        public Constructor reservar(int rutasAdicionales) {
+            int necesarias = cantidad + Math.max(0, rutasAdicionales);
+            if (necesarias > origenes.length) {
+                origenes = Arrays.copyOf(origenes, necesarias);
+                destinos = Arrays.copyOf(destinos, necesarias);
+                costos = Arrays.copyOf(costos, necesarias);
+            }
+            return this;
+        }
+
+        public Constructor agregarRuta(int origen, int destino, int costo) {
+            Objects.checkIndex(origen, numNodos);
+            Objects.checkIndex(destino, numNodos);
+            if (cantidad == origenes.length) {
+                int capacidad = origenes.length * 2;
+                origenes = Arrays.copyOf(origenes, capacidad);
+                destinos = Arrays.copyOf(destinos, capacidad);
+                costos = Arrays.copyOf(costos, capacidad);
+            }
+            origenes[cantidad] = origen;
+            destinos[cantidad] = destino;
+            costos[cantidad] = costo;
+            cantidad++;
+            return this;
+        }
+
+        public GrafoLogistica construir() {
+            return construir(new int[numNodos + 1], new int[0], new int[0]);
+        }
+
+        // Junta un CSR existente con las rutas de este constructor; las rutas nuevas
+        // quedan después de las que el nodo ya tenía
+        private GrafoLogistica construir(int[] iniciosPrevios, int[] destinosPrevios, int[] costosPrevios) {
+            int[] inicios = new int[numNodos + 1];
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                inicios[nodo + 1] = iniciosPrevios[nodo + 1] - iniciosPrevios[nodo];
+            }
+            for (int i = 0; i < cantidad; i++) {
+                inicios[origenes[i] + 1]++;
+            }
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                inicios[nodo + 1] += inicios[nodo];
+            }
+
+            int total = inicios[numNodos];
+            int[] nuevosDestinos = new int[total];
+            int[] nuevosCostos = new int[total];
+            int[] siguiente = Arrays.copyOf(inicios, numNodos);
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                int previas = iniciosPrevios[nodo + 1] - iniciosPrevios[nodo];
+                System.arraycopy(destinosPrevios, iniciosPrevios[nodo], nuevosDestinos, siguiente[nodo], previas);
+                System.arraycopy(costosPrevios, iniciosPrevios[nodo], nuevosCostos, siguiente[nodo], previas);
+                siguiente[nodo] += previas;
+            }
+            for (int i = 0; i < cantidad; i++) {
+                int posicion = siguiente[origenes[i]]++;
+                nuevosDestinos[posicion] = destinos[i];
+                nuevosCostos[posicion] = costos[i];
+            }
+            return new GrafoLogistica(numNodos, inicios, nuevosDestinos, nuevosCostos);
+        }
+    }
 }
@@ -0,0 +1,183 @@
+// Solución inicial para arrancar la búsqueda con un incumbente en vez de "infinito".
+// 1. Agregado goloso: abre de a un centro el que más baja el costo total.
+// 2. Eliminación golosa: cierra centros mientras eso baje el costo.
+// 3. Búsqueda local sobre el conjunto de centros: abrir, cerrar o intercambiar uno,
+//    quedándose con la mejor mejora hasta que no haya ninguna.
+// Con los centros fijos, cada cliente va a su centro abierto más barato (mejora 1-opt).
+// Si hay capacidades, los clientes se reparten de mayor a menor volumen y cada uno va
+// al centro abierto más barato que todavía tenga lugar.
+class HeuristicaInicial {
+    private static final long SIN_SOLUCION = Long.MAX_VALUE;
+    private static final int MAX_RONDAS_LOCALES = 100;
+
+    private final InstanciaLogistica instancia;
+    private final int numClientes;
+    private final int numCentros;
+    private final int[] ordenClientes;
+    private final long[] capacidadRestante;
+
+    HeuristicaInicial(InstanciaLogistica instancia) {
+        this.instancia = instancia;
+        this.numClientes = instancia.getNumClientes();
+        this.numCentros = instancia.getNumCentros();
+        this.ordenClientes = instancia.esCapacitada() ? instancia.clientesPorVolumenDescendente()
+                                                      : CostMatrixBuilder.rango(0, numClientes);
+        this.capacidadRestante = new long[numCentros];
+    }
+
+    // null si no encontró ninguna solución factible
+    SolucionLogistica resolver() {
+        boolean[] abiertos = new boolean[numCentros];
+        long costo = agregarGoloso(abiertos);
+        if (costo == SIN_SOLUCION) {
+            return null;
+        }
+        costo = eliminarGoloso(abiertos, costo);
+        costo = busquedaLocal(abiertos, costo);
+
+        int[] asignacion = new int[numClientes];
+        evaluar(abiertos, asignacion);
+        boolean[] centrosUtilizados = new boolean[numCentros];
+        for (int centro : asignacion) {
+            centrosUtilizados[centro] = true;
+        }
+        // Los centros abiertos quedan todos en uso: si alguno no atendiera clientes, cerrarlo mejoraría
+        return new SolucionLogistica(asignacion, Math.toIntExact(costo), centrosUtilizados);
+    }
+
+    private long agregarGoloso(boolean[] abiertos) {
+        long costo = SIN_SOLUCION;
+        while (true) {
+            int mejorCentro = -1;
+            long mejorCosto = costo;
+            for (int centro = 0; centro < numCentros; centro++) {
+                if (abiertos[centro]) {
+                    continue;
+                }
+                abiertos[centro] = true;
+                long nuevo = evaluar(abiertos, null);
+                abiertos[centro] = false;
+                if (nuevo < mejorCosto) {
+                    mejorCosto = nuevo;
+                    mejorCentro = centro;
+                }
+            }
+            if (mejorCentro == -1) {
+                return costo;
+            }
+            abiertos[mejorCentro] = true;
+            costo = mejorCosto;
+        }
+    }
+
+    private long eliminarGoloso(boolean[] abiertos, long costo) {
+        while (true) {
+            int mejorCentro = -1;
+            long mejorCosto = costo;
+            for (int centro = 0; centro < numCentros; centro++) {
+                if (!abiertos[centro]) {
+                    continue;
+                }
+                abiertos[centro] = false;
+                long nuevo = evaluar(abiertos, null);
+                abiertos[centro] = true;
+                if (nuevo < mejorCosto) {
+                    mejorCosto = nuevo;
+                    mejorCentro = centro;
+                }
+            }
+            if (mejorCentro == -1) {
+                return costo;
+            }
+            abiertos[mejorCentro] = false;
+            costo = mejorCosto;
+        }
+    }
+
+    private long busquedaLocal(boolean[] abiertos, long costo) {
+        for (int ronda = 0; ronda < MAX_RONDAS_LOCALES; ronda++) {
+            int cerrar = -1;
+            int abrir = -1;
+            long mejorCosto = costo;
+
+            for (int centro = 0; centro < numCentros; centro++) {
+                // Abrir o cerrar un solo centro
+                abiertos[centro] = !abiertos[centro];
+                long nuevo = evaluar(abiertos, null);
+                abiertos[centro] = !abiertos[centro];
+                if (nuevo < mejorCosto) {
+                    mejorCosto = nuevo;
+                    cerrar = abiertos[centro] ? centro : -1;
+                    abrir = abiertos[centro] ? -1 : centro;
+                }
+
+                // Intercambiar un centro abierto por uno cerrado
+                if (!abiertos[centro]) {
+                    continue;
+                }
+                abiertos[centro] = false;
+                for (int otro = 0; otro < numCentros; otro++) {
+                    if (abiertos[otro] || otro == centro) {
+                        continue;
+                    }
+                    abiertos[otro] = true;
+                    nuevo = evaluar(abiertos, null);
+                    abiertos[otro] = false;
+                    if (nuevo < mejorCosto) {
+                        mejorCosto = nuevo;
+                        cerrar = centro;
+                        abrir = otro;
+                    }
+                }
+                abiertos[centro] = true;
+            }
+
+            if (mejorCosto == costo) {
+                return costo;
+            }
+            if (cerrar != -1) {
+                abiertos[cerrar] = false;
+            }
+            if (abrir != -1) {
+                abiertos[abrir] = true;
+            }
+            costo = mejorCosto;
+        }
+        return costo;
+    }
+
+    // Costo de abrir exactamente esos centros, mandando cada cliente al más barato.
+    // Si asignacion no es null deja ahí el centro elegido para cada cliente
+    private long evaluar(boolean[] abiertos, int[] asignacion) {
+        long costo = 0;
+        for (int centro = 0; centro < numCentros; centro++) {
+            if (abiertos[centro]) {
+                costo += instancia.getCostoFijo(centro);
+            }
+            capacidadRestante[centro] = instancia.getCapacidad(centro);
+        }
+        for (int cliente : ordenClientes) {
+            int volumen = instancia.getVolumen(cliente);
+            int mejorCentro = -1;
+            int mejorCosto = InstanciaLogistica.INALCANZABLE;
+            for (int centro = 0; centro < numCentros; centro++) {
+                if (abiertos[centro] && capacidadRestante[centro] >= volumen) {
+                    int asignar = instancia.costoAsignacion(cliente, centro);
+                    if (asignar < mejorCosto) {
+                        mejorCosto = asignar;
+                        mejorCentro = centro;
+                    }
+                }
+            }
+            if (mejorCentro == -1) {
+                return SIN_SOLUCION;
+            }
+            costo += mejorCosto;
+            capacidadRestante[mejorCentro] -= volumen;
+            if (asignacion != null) {
+                asignacion[cliente] = mejorCentro;
+            }
+        }
+        return costo;
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+// Datos de un problema ya cargado, compartidos (solo lectura) por el optimizador
+// y las estrategias que lo asisten
+class InstanciaLogistica {
+    static final int INALCANZABLE = Integer.MAX_VALUE;
+    // Centros sin la columna de capacidad en el archivo
+    static final int SIN_CAPACIDAD = Integer.MAX_VALUE;
+
+    private final int numClientes;
+    private final int numCentros;
+    private final int[][] centrosCostos;      // [centro][id, costoUnitarioPuerto, costoFijo, capacidad]
+    private final int[][] clientesVolumen;    // [cliente][id, volumen]
+    private final MatrizCostos costosTransporte;   // [centro][cliente]
+    private final boolean capacitada;
+
+    InstanciaLogistica(int[][] centrosCostos, int[][] clientesVolumen, MatrizCostos costosTransporte) {
+        this.numCentros = centrosCostos.length;
+        this.numClientes = clientesVolumen.length;
+        this.centrosCostos = centrosCostos;
+        this.clientesVolumen = clientesVolumen;
+        this.costosTransporte = costosTransporte;
+
+        boolean algunaCapacidad = false;
+        for (int centro = 0; centro < numCentros; centro++) {
+            algunaCapacidad |= getCapacidad(centro) != SIN_CAPACIDAD;
+        }
+        this.capacitada = algunaCapacidad;
+    }
+
+    int getNumClientes() {
+        return numClientes;
+    }
+
+    int getNumCentros() {
+        return numCentros;
+    }
+
+    int getVolumen(int cliente) {
+        return clientesVolumen[cliente][1];
+    }
+
+    int getCostoFijo(int centro) {
+        return centrosCostos[centro][2];
+    }
+
+    int getCostoUnitario(int centro) {
+        return centrosCostos[centro][1];
+    }
+
+    // Volumen total que puede atender el centro, SIN_CAPACIDAD si no tiene límite
+    int getCapacidad(int centro) {
+        return centrosCostos[centro].length > 3 ? centrosCostos[centro][3] : SIN_CAPACIDAD;
+    }
+
+    // true si algún centro tiene capacidad limitada
+    boolean esCapacitada() {
+        return capacitada;
+    }
+
+    // Clientes de mayor a menor volumen; los empates quedan en el orden original
+    int[] clientesPorVolumenDescendente() {
+        Integer[] orden = new Integer[numClientes];
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            orden[cliente] = cliente;
+        }
+        Arrays.sort(orden, (a, b) -> Integer.compare(getVolumen(b), getVolumen(a)));
+        return Arrays.stream(orden).mapToInt(Integer::intValue).toArray();
+    }
+
+    int getCostoTransporte(int centro, int cliente) {
+        return costosTransporte.get(centro, cliente);
+    }
+
+    boolean esAlcanzable(int cliente, int centro) {
+        return costosTransporte.get(centro, cliente) != INALCANZABLE;
+    }
+
+    // Costo de atender todo el volumen del cliente desde el centro (sin el costo fijo)
+    int costoAsignacion(int cliente, int centro) {
+        if (!esAlcanzable(cliente, centro)) {
+            return INALCANZABLE;
+        }
+        return clientesVolumen[cliente][1] * (costosTransporte.get(centro, cliente) + centrosCostos[centro][1]);
+    }
+}
@@ -0,0 +1,427 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+// Jerarquía de contracciones sobre un GrafoLogistica: un preprocesamiento de una sola vez
+// que hace mucho más baratas las consultas repetidas de costo mínimo.
+//
+// Construcción: se "contraen" los nodos de a uno, de menos a más importante. Al sacar un
+// nodo v, por cada camino u -> v -> w se agrega un atajo u -> w con su costo, salvo que
+// una búsqueda de testigo encuentre un camino u -> w igual de barato que no pase por v.
+// El orden sale de un montículo por prioridad (atajos agregados menos aristas quitadas,
+// más vecinos ya contraídos) que se recalcula al sacar cada nodo. En redes viales el
+// grafo que queda se mantiene ralo; en grafos al azar (como los de GeneradorInstancias) se
+// densifica enseguida, así que cuando lo que queda pasa de GRADO_NUCLEO aristas por nodo
+// se deja sin contraer: ese núcleo se recorre con Dijkstra común en las dos búsquedas.
+//
+// Consulta: todo camino mínimo sube de rango hasta un nodo y después baja, así que alcanza
+// con una búsqueda desde el origen por aristas que suben y otra desde el destino por
+// aristas que bajan (al revés); el costo es la menor suma en los nodos que tocan las dos.
+// Para la matriz, cada destino deja su costo en los nodos de su búsqueda ("baldes") y cada
+// origen los recoge, así que cuesta una búsqueda chica por origen y por destino.
+//
+// Ni Main ni CostMatrixBuilder la usan: arman una sola matriz por red (que además queda en
+// CacheMatrizCostos) y la construcción no se recupera con una consulta. Sobre una red de
+// GeneradorInstancias de 20000 nodos quedan unos 13000 en el núcleo, construirla tarda unos
+// 19 s y la matriz 8x30 sale en 0,6-0,8 s contra 0,1 s de CostMatrixBuilder. Sobre una
+// grilla de 90000 nodos la matriz baja a 20-70 ms (contra 130-185 ms), pero con 13 s de
+// construcción recién conviene a partir de unas cien matrices sobre la misma red.
+//
+// Las consultas usan arreglos de trabajo del objeto: no es seguro entre hilos.
+public class JerarquiaContracciones {
+    private static final int INFINITO = Integer.MAX_VALUE;
+    // Nodos que puede asentar una búsqueda de testigo. Si no alcanza, se agrega el atajo:
+    // sobra una arista pero el resultado sigue siendo exacto. Para estimar la prioridad
+    // alcanza con una búsqueda más corta
+    private static final int LIMITE_TESTIGO = 500;
+    private static final int LIMITE_TESTIGO_PRIORIDAD = 50;
+    private static final int GRADO_NUCLEO = 16;
+
+    private final int numNodos;
+    private final GrafoLogistica subida;   // u -> v que sube de rango
+    private final GrafoLogistica bajada;   // u -> v que baja de rango, guardada como v -> u
+    private final int atajos;
+    private final int nodosNucleo;
+
+    private final MonticuloIndexado monticulo;
+    private final int[] costosAdelante;
+    private final int[] costosAtras;
+    private final int[] visitadosAdelante;
+    private final int[] visitadosAtras;
+    private final int[] primerBalde;   // -1 salvo durante calcularMatriz
+
+    JerarquiaContracciones(GrafoLogistica grafo) {
+        this.numNodos = grafo.numNodos;
+        Contraccion contraccion = new Contraccion(grafo);
+        contraccion.contraerTodos();
+        this.subida = contraccion.subida.construir();
+        this.bajada = contraccion.bajada.construir();
+        this.atajos = contraccion.atajos;
+        this.nodosNucleo = contraccion.restantes;
+
+        this.monticulo = new MonticuloIndexado(numNodos);
+        this.costosAdelante = new int[numNodos];
+        this.costosAtras = new int[numNodos];
+        this.visitadosAdelante = new int[numNodos];
+        this.visitadosAtras = new int[numNodos];
+        this.primerBalde = new int[numNodos];
+        Arrays.fill(costosAdelante, INFINITO);
+        Arrays.fill(costosAtras, INFINITO);
+        Arrays.fill(primerBalde, -1);
+    }
+
+    // Atajos agregados durante la construcción
+    public int getAtajos() {
+        return atajos;
+    }
+
+    // Nodos que quedaron sin contraer (0 si se contrajo todo el grafo)
+    public int getNodosNucleo() {
+        return nodosNucleo;
+    }
+
+    // Costo mínimo de origen a destino (Integer.MAX_VALUE si no se llega)
+    public int distancia(int origen, int destino) {
+        Objects.checkIndex(origen, numNodos);
+        Objects.checkIndex(destino, numNodos);
+        int adelante = explorar(subida, bajada, origen, costosAdelante, visitadosAdelante);
+        int atras = explorar(bajada, subida, destino, costosAtras, visitadosAtras);
+        long mejor = INFINITO;
+        for (int i = 0; i < atras; i++) {
+            int nodo = visitadosAtras[i];
+            if (costosAdelante[nodo] != INFINITO) {
+                mejor = Math.min(mejor, (long) costosAdelante[nodo] + costosAtras[nodo]);
+            }
+        }
+        limpiar(costosAdelante, visitadosAdelante, adelante);
+        limpiar(costosAtras, visitadosAtras, atras);
+        return (int) mejor;
+    }
+
+    // Matriz [origen][destino], igual a la de CostMatrixBuilder
+    public MatrizCostos calcularMatriz(int[] origenes, int[] destinos) {
+        for (int nodo : origenes) {
+            Objects.checkIndex(nodo, numNodos);
+        }
+        for (int nodo : destinos) {
+            Objects.checkIndex(nodo, numNodos);
+        }
+
+        // Baldes: por cada nodo de la búsqueda de un destino, la columna y el costo hasta él.
+        // Los de un mismo nodo forman una lista que empieza en primerBalde[nodo]
+        int cantidad = 0;
+        int[] nodos = new int[Math.max(16, destinos.length * 8)];
+        int[] columnas = new int[nodos.length];
+        int[] costos = new int[nodos.length];
+        int[] siguienteBalde = new int[columnas.length];
+        for (int columna = 0; columna < destinos.length; columna++) {
+            int atras = explorar(bajada, subida, destinos[columna], costosAtras, visitadosAtras);
+            if (cantidad + atras > nodos.length) {
+                int capacidad = Math.max(nodos.length * 2, cantidad + atras);
+                nodos = Arrays.copyOf(nodos, capacidad);
+                columnas = Arrays.copyOf(columnas, capacidad);
+                costos = Arrays.copyOf(costos, capacidad);
+                siguienteBalde = Arrays.copyOf(siguienteBalde, capacidad);
+            }
+            for (int i = 0; i < atras; i++) {
+                int nodo = visitadosAtras[i];
+                nodos[cantidad] = nodo;
+                columnas[cantidad] = columna;
+                costos[cantidad] = costosAtras[nodo];
+                siguienteBalde[cantidad] = primerBalde[nodo];
+                primerBalde[nodo] = cantidad++;
+            }
+            limpiar(costosAtras, visitadosAtras, atras);
+        }
+
+        MatrizCostos matriz = MatrizCostos.enMemoria(origenes.length, destinos.length);
+        long[] fila = new long[destinos.length];
+        int[] filaEnteros = new int[destinos.length];
+        for (int numeroFila = 0; numeroFila < origenes.length; numeroFila++) {
+            Arrays.fill(fila, INFINITO);
+            int adelante = explorar(subida, bajada, origenes[numeroFila], costosAdelante, visitadosAdelante);
+            for (int i = 0; i < adelante; i++) {
+                int nodo = visitadosAdelante[i];
+                for (int balde = primerBalde[nodo]; balde != -1; balde = siguienteBalde[balde]) {
+                    fila[columnas[balde]] = Math.min(fila[columnas[balde]], (long) costosAdelante[nodo] + costos[balde]);
+                }
+            }
+            limpiar(costosAdelante, visitadosAdelante, adelante);
+            for (int columna = 0; columna < destinos.length; columna++) {
+                filaEnteros[columna] = (int) fila[columna];
+            }
+            matriz.setFila(numeroFila, filaEnteros);
+        }
+
+        for (int i = 0; i < cantidad; i++) {
+            primerBalde[nodos[i]] = -1;
+        }
+        return matriz;
+    }
+
+    // Dijkstra completo por las aristas de un sentido; deja los nodos alcanzados en visitados.
+    // En la jerarquía este espacio de búsqueda es chico aunque el grafo sea enorme.
+    // 'contrarias' son las aristas que llegan al nodo desde más arriba: si alguna ofrece un
+    // costo menor, el nodo no está en un camino mínimo y no se expande ("stall on demand")
+    private int explorar(GrafoLogistica grafo, GrafoLogistica contrarias, int origen, int[] costos, int[] visitados) {
+        int cantidad = 0;
+        costos[origen] = 0;
+        visitados[cantidad++] = origen;
+        monticulo.insertarOReducir(origen, 0);
+        while (!monticulo.estaVacio()) {
+            int nodo = monticulo.extraerMinimo();
+            if (estaDetenido(contrarias, nodo, costos)) {
+                continue;
+            }
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                int vecino = grafo.destinoArista(arista);
+                int nuevoCosto = costos[nodo] + grafo.costoArista(arista);
+                if (nuevoCosto < costos[vecino]) {
+                    if (costos[vecino] == INFINITO) {
+                        visitados[cantidad++] = vecino;
+                    }
+                    costos[vecino] = nuevoCosto;
+                    monticulo.insertarOReducir(vecino, nuevoCosto);
+                }
+            }
+        }
+        return cantidad;
+    }
+
+    private static boolean estaDetenido(GrafoLogistica contrarias, int nodo, int[] costos) {
+        for (int arista = contrarias.primeraArista(nodo), fin = contrarias.finAristas(nodo); arista < fin; arista++) {
+            int superior = contrarias.destinoArista(arista);
+            if (costos[superior] != INFINITO && (long) costos[superior] + contrarias.costoArista(arista) < costos[nodo]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void limpiar(int[] costos, int[] visitados, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            costos[visitados[i]] = INFINITO;
+        }
+    }
+
+    // Grafo que se va achicando mientras se contrae, con listas de salida y de entrada por
+    // nodo. Solo vive durante la construcción
+    private static final class Contraccion {
+        final int numNodos;
+        final int[][] salida;
+        final int[][] costosSalida;
+        final int[] gradoSalida;
+        final int[][] entrada;
+        final int[][] costosEntrada;
+        final int[] gradoEntrada;
+        final int[] vecinosContraidos;
+        int restantes;
+        long aristasRestantes;
+        final GrafoLogistica.Constructor subida;
+        final GrafoLogistica.Constructor bajada;
+        int atajos;
+
+        // Búsqueda de testigos
+        final MonticuloIndexado monticulo;
+        final int[] costos;
+        final int[] visitados;
+        int cantidadVisitados;
+
+        Contraccion(GrafoLogistica grafo) {
+            numNodos = grafo.numNodos;
+            salida = new int[numNodos][];
+            costosSalida = new int[numNodos][];
+            gradoSalida = new int[numNodos];
+            entrada = new int[numNodos][];
+            costosEntrada = new int[numNodos][];
+            gradoEntrada = new int[numNodos];
+            vecinosContraidos = new int[numNodos];
+            int rutas = grafo.getNumRutas();
+            subida = new GrafoLogistica.Constructor(numNodos, rutas);
+            bajada = new GrafoLogistica.Constructor(numNodos, rutas);
+
+            int[] entrantes = new int[numNodos];
+            for (int arista = 0; arista < rutas; arista++) {
+                entrantes[grafo.destinoArista(arista)]++;
+            }
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                int salientes = grafo.finAristas(nodo) - grafo.primeraArista(nodo);
+                salida[nodo] = new int[Math.max(2, salientes)];
+                costosSalida[nodo] = new int[salida[nodo].length];
+                entrada[nodo] = new int[Math.max(2, entrantes[nodo])];
+                costosEntrada[nodo] = new int[entrada[nodo].length];
+            }
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                    if (grafo.destinoArista(arista) != nodo) {
+                        agregarArista(nodo, grafo.destinoArista(arista), grafo.costoArista(arista));
+                    }
+                }
+            }
+
+            restantes = numNodos;
+            monticulo = new MonticuloIndexado(numNodos);
+            costos = new int[numNodos];
+            visitados = new int[numNodos];
+            Arrays.fill(costos, INFINITO);
+        }
+
+        void contraerTodos() {
+            MonticuloIndexado cola = new MonticuloIndexado(numNodos);
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                cola.insertarOReducir(nodo, prioridad(nodo));
+            }
+            while (!cola.estaVacio()) {
+                int nodo = cola.extraerMinimo();
+                // La prioridad guardada puede estar vieja: si ahora hay otro mejor, se reinserta
+                int actual = prioridad(nodo);
+                if (!cola.estaVacio() && actual > cola.claveMinima()) {
+                    cola.insertarOReducir(nodo, actual);
+                    continue;
+                }
+                if (aristasRestantes > (long) GRADO_NUCLEO * restantes) {
+                    cola.vaciar();
+                    agregarNucleo();
+                    return;
+                }
+                contraer(nodo);
+            }
+        }
+
+        // Las aristas entre nodos sin contraer van en los dos sentidos de búsqueda
+        private void agregarNucleo() {
+            for (int nodo = 0; nodo < numNodos; nodo++) {
+                for (int i = 0; i < gradoSalida[nodo]; i++) {
+                    subida.agregarRuta(nodo, salida[nodo][i], costosSalida[nodo][i]);
+                    bajada.agregarRuta(salida[nodo][i], nodo, costosSalida[nodo][i]);
+                }
+            }
+        }
+
+        private int prioridad(int nodo) {
+            return agregarAtajos(nodo, false, LIMITE_TESTIGO_PRIORIDAD) - gradoEntrada[nodo] - gradoSalida[nodo] + vecinosContraidos[nodo];
+        }
+
+        // Todas las aristas que le quedan al nodo van a nodos que se contraen después
+        private void contraer(int nodo) {
+            for (int i = 0; i < gradoSalida[nodo]; i++) {
+                subida.agregarRuta(nodo, salida[nodo][i], costosSalida[nodo][i]);
+            }
+            for (int i = 0; i < gradoEntrada[nodo]; i++) {
+                bajada.agregarRuta(nodo, entrada[nodo][i], costosEntrada[nodo][i]);
+            }
+            atajos += agregarAtajos(nodo, true, LIMITE_TESTIGO);
+
+            for (int i = 0; i < gradoSalida[nodo]; i++) {
+                int vecino = salida[nodo][i];
+                quitar(entrada[vecino], costosEntrada[vecino], gradoEntrada, vecino, nodo);
+                vecinosContraidos[vecino]++;
+            }
+            for (int i = 0; i < gradoEntrada[nodo]; i++) {
+                int vecino = entrada[nodo][i];
+                quitar(salida[vecino], costosSalida[vecino], gradoSalida, vecino, nodo);
+                vecinosContraidos[vecino]++;
+            }
+            aristasRestantes -= gradoSalida[nodo] + gradoEntrada[nodo];
+            restantes--;
+            gradoSalida[nodo] = 0;
+            gradoEntrada[nodo] = 0;
+        }
+
+        // Cuenta (y si agregar es true, agrega) los atajos necesarios para sacar el nodo
+        private int agregarAtajos(int nodo, boolean agregar, int limiteAsentados) {
+            int maximoSalida = 0;
+            for (int i = 0; i < gradoSalida[nodo]; i++) {
+                maximoSalida = Math.max(maximoSalida, costosSalida[nodo][i]);
+            }
+            int cantidad = 0;
+            for (int i = 0; i < gradoEntrada[nodo] && gradoSalida[nodo] > 0; i++) {
+                int previo = entrada[nodo][i];
+                int costoPrevio = costosEntrada[nodo][i];
+                buscarTestigos(previo, nodo, costoPrevio + maximoSalida, limiteAsentados);
+                for (int j = 0; j < gradoSalida[nodo]; j++) {
+                    int siguiente = salida[nodo][j];
+                    int atajo = costoPrevio + costosSalida[nodo][j];
+                    if (siguiente != previo && costos[siguiente] > atajo) {
+                        cantidad++;
+                        if (agregar) {
+                            agregarArista(previo, siguiente, atajo);
+                        }
+                    }
+                }
+                for (int j = 0; j < cantidadVisitados; j++) {
+                    costos[visitados[j]] = INFINITO;
+                }
+            }
+            return cantidad;
+        }
+
+        // Dijkstra acotado desde origen que no pasa por excluido
+        private void buscarTestigos(int origen, int excluido, int limite, int limiteAsentados) {
+            cantidadVisitados = 0;
+            costos[origen] = 0;
+            visitados[cantidadVisitados++] = origen;
+            monticulo.insertarOReducir(origen, 0);
+            int asentados = 0;
+            while (!monticulo.estaVacio()) {
+                int nodo = monticulo.extraerMinimo();
+                if (costos[nodo] > limite || ++asentados > limiteAsentados) {
+                    break;
+                }
+                for (int i = 0; i < gradoSalida[nodo]; i++) {
+                    int vecino = salida[nodo][i];
+                    int nuevoCosto = costos[nodo] + costosSalida[nodo][i];
+                    if (vecino != excluido && nuevoCosto < costos[vecino]) {
+                        if (costos[vecino] == INFINITO) {
+                            visitados[cantidadVisitados++] = vecino;
+                        }
+                        costos[vecino] = nuevoCosto;
+                        monticulo.insertarOReducir(vecino, nuevoCosto);
+                    }
+                }
+            }
+            monticulo.vaciar();
+        }
+
+        // Si la arista ya existe se queda con el menor costo
+        private void agregarArista(int origen, int destino, int costo) {
+            for (int i = 0; i < gradoSalida[origen]; i++) {
+                if (salida[origen][i] == destino) {
+                    if (costo < costosSalida[origen][i]) {
+                        costosSalida[origen][i] = costo;
+                        for (int j = 0; j < gradoEntrada[destino]; j++) {
+                            if (entrada[destino][j] == origen) {
+                                costosEntrada[destino][j] = costo;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            if (gradoSalida[origen] == salida[origen].length) {
+                salida[origen] = Arrays.copyOf(salida[origen], salida[origen].length * 2);
+                costosSalida[origen] = Arrays.copyOf(costosSalida[origen], salida[origen].length);
+            }
+            salida[origen][gradoSalida[origen]] = destino;
+            costosSalida[origen][gradoSalida[origen]++] = costo;
+            aristasRestantes++;
+            if (gradoEntrada[destino] == entrada[destino].length) {
+                entrada[destino] = Arrays.copyOf(entrada[destino], entrada[destino].length * 2);
+                costosEntrada[destino] = Arrays.copyOf(costosEntrada[destino], entrada[destino].length);
+            }
+            entrada[destino][gradoEntrada[destino]] = origen;
+            costosEntrada[destino][gradoEntrada[destino]++] = costo;
+        }
+
+        // Saca a vecino de la lista del nodo intercambiándolo con el último
+        private static void quitar(int[] nodos, int[] costos, int[] grados, int nodo, int vecino) {
+            for (int i = 0; i < grados[nodo]; i++) {
+                if (nodos[i] == vecino) {
+                    int ultimo = --grados[nodo];
+                    nodos[i] = nodos[ultimo];
+                    costos[i] = costos[ultimo];
+                    return;
+                }
+            }
+        }
+    }
+}
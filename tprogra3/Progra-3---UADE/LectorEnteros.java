@@ -0,0 +1,115 @@
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Lee archivos de texto con números separados por comas, tabulaciones o espacios, línea por
+// línea, directamente de los bytes mapeados en memoria: no crea Strings ni objetos
+// por línea. El archivo se mapea por ventanas, así que puede pasar de 2 GB.
+// Lo que sigue a un '#' hasta el fin de línea se ignora (comentario). Cualquier otro
+// carácter, un '-' suelto o un número que no entra en un int es un error, como con
+// Integer.parseInt.
+class LectorEnteros implements Closeable {
+    private static final long TAMANO_VENTANA = 1L << 26; // 64 MB
+
+    private final FileChannel canal;
+    private final long tamano;
+    private MappedByteBuffer ventana;
+    private long finVentana;
+    private long numeroLinea;
+
+    LectorEnteros(String archivo) throws IOException {
+        this.canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ);
+        this.tamano = canal.size();
+        this.finVentana = 0;
+    }
+
+    // Lee los enteros de la próxima línea que tenga alguno y guarda los primeros en destino.
+    // Devuelve cuántos enteros tenía la línea (pueden ser más que destino.length),
+    // o -1 si se terminó el archivo
+    int leerLinea(int[] destino) throws IOException {
+        while (true) {
+            int cantidad = leerLineaCruda(destino);
+            if (cantidad != 0) {
+                return cantidad;
+            }
+        }
+    }
+
+    // Como leerLinea, pero exige al menos 'minimo' enteros
+    int leerLinea(int[] destino, int minimo) throws IOException {
+        int cantidad = leerLinea(destino);
+        if (cantidad < minimo) {
+            throw new IOException(cantidad == -1 ? "Fin de archivo inesperado"
+                                                 : "Se esperaban " + minimo + " valores y la línea tiene " + cantidad);
+        }
+        return cantidad;
+    }
+
+    private int leerLineaCruda(int[] destino) throws IOException {
+        int c = siguienteByte();
+        if (c == -1) {
+            return -1;
+        }
+
+        numeroLinea++;
+        int cantidad = 0;
+        while (c != -1 && c != '\n') {
+            if (c == '#') {
+                do {
+                    c = siguienteByte();
+                } while (c != -1 && c != '\n');
+                break;
+            }
+            if (esSeparador(c)) {
+                c = siguienteByte();
+                continue;
+            }
+
+            boolean negativo = c == '-';
+            if (negativo) {
+                c = siguienteByte();
+            }
+            if (c < '0' || c > '9') {
+                throw new IOException("Valor inválido en la línea " + numeroLinea);
+            }
+            long valor = 0;
+            do {
+                valor = valor * 10 + (c - '0');
+                if (valor > (negativo ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                    throw new IOException("Número fuera de rango en la línea " + numeroLinea);
+                }
+                c = siguienteByte();
+            } while (c >= '0' && c <= '9');
+            if (c != -1 && c != '\n' && c != '#' && !esSeparador(c)) {
+                throw new IOException("Valor inválido en la línea " + numeroLinea);
+            }
+            if (cantidad < destino.length) {
+                destino[cantidad] = (int) (negativo ? -valor : valor);
+            }
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    private static boolean esSeparador(int c) {
+        return c == ',' || c == '\t' || c == ' ' || c == '\r';
+    }
+
+    private int siguienteByte() throws IOException {
+        if (ventana == null || !ventana.hasRemaining()) {
+            if (finVentana >= tamano) {
+                return -1;
+            }
+            long largo = Math.min(TAMANO_VENTANA, tamano - finVentana);
+            ventana = canal.map(FileChannel.MapMode.READ_ONLY, finVentana, largo);
+            finVentana += largo;
+        }
+        return ventana.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
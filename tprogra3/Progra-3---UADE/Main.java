@@ -1,68 +1,178 @@
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
 import java.util.*;
 
+// Uso: ver USO. Las rutas relativas se resuelven desde el directorio actual. Con --escenarios se
+// resuelven todos los escenarios del lote sobre la misma red (ver ServicioEscenarios).
+// La cantidad de clientes y de centros sale de las dos primeras líneas de la instancia
+// (en lote, del primer escenario; los que tengan otras dimensiones terminan con error).
+// Sin --escenarios, la asignación de cada cliente se muestra en consola, o se escribe
+// con su ruta en --solucion si se indica (ver ExportadorSolucion)
 public class Main {
+    private static final String USO = String.join(System.lineSeparator(),
+        "Uso: java Main [--rutas=rutas.txt] [--instancia=clientesYCentros.txt]",
+        "               [--solucion=ARCHIVO [--formato=csv|binario]]",
+        "     java Main --escenarios=DIRECTORIO|MANIFIESTO [--rutas=rutas.txt] [--salida=resultados.csv]",
+        "               [--formato=csv|json] [--concurrencia=N] [--segundos=S]");
+
     public static void main(String[] args) {
         System.out.println("=== SISTEMA DE OPTIMIZACIÓN LOGÍSTICA ===\n");
-        
-        // Paso 1: Inicializar el grafo y cargar las rutas
-        GrafoLogistica grafo = new GrafoLogistica(58); // 50 clientes + 8 centros
+        // Todas las opciones se validan antes de empezar, así un valor mal escrito no
+        // aparece recién después de calcular la matriz
+        OpcionesLinea opciones;
+        ExportadorSolucion.Formato formatoSolucion = null;
+        ServicioEscenarios.Formato formatoLote = null;
+        int concurrencia = 0;
+        double segundos = 0;
         try {
-            grafo.cargarRutas("C:/Users/ignac/OneDrive/Escritorio/tprogra3/Progra-3---UADE/rutas.txt/");
-        } catch (Exception e) {
-            System.err.println("Error al cargar rutas: " + e.getMessage());
+            opciones = new OpcionesLinea(args);
+            if (opciones.contiene("escenarios")) {
+                formatoLote = opciones.opcion("formato", ServicioEscenarios.Formato.class, ServicioEscenarios.Formato.CSV);
+                concurrencia = opciones.entero("concurrencia", Runtime.getRuntime().availableProcessors(), 1);
+                segundos = opciones.decimal("segundos", 0, 0);
+            } else {
+                formatoSolucion = opciones.opcion("formato", ExportadorSolucion.Formato.class, ExportadorSolucion.Formato.CSV);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
             return;
         }
-
-        // Paso 2: Calcular costos mínimos desde cada centro usando Dijkstra
-        int[][] costosMinimos = new int[8][50]; // [centro][cliente]
-        System.out.println("\nCalculando costos mínimos desde cada centro de distribución...");
         
-        for (int centroId = 0; centroId < 8; centroId++) {
-            int centroReal = centroId + 50; // Ajuste para ID real del centro (50-57)
-            try {
-                int[] costosDesdecentro = grafo.dijkstraDesdeCentro(centroReal);
-                
-                // Guardar solo los costos hacia los clientes (0-49)
-                for (int cliente = 0; cliente < 50; cliente++) {
-                    costosMinimos[centroId][cliente] = costosDesdecentro[cliente];
+        // Las dimensiones se conocen antes de tocar la red: hacen falta para la clave de la caché
+        Path instancia = Paths.get(opciones.texto("instancia", "clientesYCentros.txt"));
+        List<Path> escenarios = null;
+        int numClientes;
+        int numCentros;
+        try {
+            if (opciones.contiene("escenarios")) {
+                escenarios = ServicioEscenarios.listarEscenarios(Paths.get(opciones.texto("escenarios", null)));
+                if (escenarios.isEmpty()) {
+                    System.err.println("No hay escenarios en " + opciones.texto("escenarios", null));
+                    return;
                 }
-                
-                System.out.println("Centro " + centroId + ": Costos calculados exitosamente");
-            } catch (Exception e) {
-                System.err.println("Error al calcular costos para centro " + centroId + ": " + e.getMessage());
-                return;
+                instancia = escenarios.get(0);
             }
+            int[] dimensiones = leerDimensiones(instancia);
+            numClientes = dimensiones[0];
+            numCentros = dimensiones[1];
+        } catch (IOException e) {
+            System.err.println("Error al leer " + (escenarios == null ? instancia : "los escenarios") + ": " + e.getMessage());
+            return;
+        }
+
+        // Pasos 1 y 2: Cargar las rutas y calcular costos mínimos desde cada centro usando Dijkstra.
+        // Si el archivo de rutas no cambió desde la última corrida, la matriz se lee de la caché
+        // Los clientes son los nodos 0..numClientes-1 y los centros vienen a continuación
+        Path rutas = Paths.get(opciones.texto("rutas", "rutas.txt"));
+        MatrizCostos costosMinimos; // [centro][cliente]
+        System.out.println("\nCalculando costos mínimos desde cada centro de distribución...");
+        try {
+            costosMinimos = new CacheMatrizCostos(rutas.resolveSibling(".cache-costos")).obtener(
+                rutas,
+                numClientes + numCentros,
+                CostMatrixBuilder.rango(numClientes, numCentros),
+                CostMatrixBuilder.rango(0, numClientes)
+            );
+            System.out.println("Costos calculados exitosamente para " + numCentros + " centros");
+        } catch (Exception e) {
+            System.err.println("Error al calcular costos: " + e.getMessage());
+            return;
+        }
+
+        if (escenarios != null) {
+            Path salida = Paths.get(opciones.texto("salida",
+                formatoLote == ServicioEscenarios.Formato.CSV ? "resultados.csv" : "resultados.jsonl"));
+            resolverEscenarios(escenarios, costosMinimos, salida, formatoLote, concurrencia, segundos);
+            return;
         }
 
         // Paso 3: Ejecutar la optimización de centros
         System.out.println("\nIniciando optimización de centros de distribución...");
         DistributionCenterOptimization optimizer = new DistributionCenterOptimization();
+        optimizer.setEscuchaBusqueda(EscuchaBusqueda.consola());
+        SolucionLogistica solucion;
         
         try {
-            optimizer.inicializar("C:/Users/ignac/OneDrive/Escritorio/tprogra3/Progra-3---UADE/clientesYCentros.txt/", costosMinimos);
-            SolucionLogistica solucion = optimizer.optimizar();
+            optimizer.inicializar(instancia.toString(), costosMinimos);
+            solucion = optimizer.optimizar();
             
             // Paso 4: Mostrar resultados
             System.out.println("\n=== RESULTADOS DE LA OPTIMIZACIÓN ===");
             System.out.println("Costo total optimizado: " + solucion.getCostoTotal());
             
             System.out.println("\nCentros de distribución seleccionados:");
-            for (int i = 0; i < 8; i++) {
+            for (int i = 0; i < numCentros; i++) {
                 if (solucion.isCentroUtilizado(i)) {
                     System.out.println("Centro " + i);
                 }
             }
             
-            System.out.println("\nAsignación de clientes:");
-            for (int i = 0; i < 50; i++) {
-                System.out.println("Cliente " + i + " -> Centro " + 
-                                 solucion.getCentroAsignadoCliente(i));
-            }
-            
         } catch (Exception e) {
             System.err.println("Error durante la optimización: " + e.getMessage());
             return;
         }
+
+        if (!opciones.contiene("solucion")) {
+            System.out.println("\nAsignación de clientes:");
+            for (int i = 0; i < numClientes; i++) {
+                System.out.println("Cliente " + i + " -> Centro " + solucion.getCentroAsignadoCliente(i));
+            }
+            return;
+        }
+
+        // Paso 5: Exportar la asignación con la ruta de cada cliente. Las rutas salen de un
+        // Dijkstra con predecesores por centro abierto, así que acá sí hace falta el grafo
+        Path archivoSolucion = Paths.get(opciones.texto("solucion", null));
+        try {
+            GrafoLogistica grafo = new GrafoLogistica(numClientes + numCentros);
+            grafo.cargarRutas(rutas.toString());
+            RutasSolucion rutasSolucion = RutasSolucion.reconstruir(grafo,
+                CostMatrixBuilder.rango(numClientes, numCentros), CostMatrixBuilder.rango(0, numClientes), solucion);
+            ExportadorSolucion.exportar(archivoSolucion, formatoSolucion, solucion, rutasSolucion);
+            System.out.println("\nAsignación de clientes y rutas en " + archivoSolucion);
+        } catch (Exception e) {
+            System.err.println("Error al exportar la solución: " + e.getMessage());
+        }
+    }
+
+    // Paso 3 en lote: un registro por escenario en el archivo de salida. segundos = 0 es sin límite
+    private static void resolverEscenarios(List<Path> escenarios, MatrizCostos costosMinimos, Path salida,
+                                           ServicioEscenarios.Formato formato, int concurrencia, double segundos) {
+        ServicioEscenarios servicio = new ServicioEscenarios(costosMinimos, concurrencia);
+        if (segundos > 0) {
+            servicio.setPresupuesto(Presupuesto.tiempo(Duration.ofMillis((long) (segundos * 1000))));
+        }
+
+        try {
+            System.out.println("\nResolviendo " + escenarios.size() + " escenarios (" + concurrencia + " a la vez)...");
+            long inicio = System.nanoTime();
+            int fallidos;
+            try (Writer escritor = Files.newBufferedWriter(salida, StandardCharsets.UTF_8)) {
+                fallidos = servicio.resolver(escenarios, escritor, formato);
+            }
+            System.out.printf("Escenarios resueltos: %d, con error: %d (%.1f s). Resultados en %s%n",
+                              escenarios.size() - fallidos, fallidos, (System.nanoTime() - inicio) / 1e9, salida);
+        } catch (IOException e) {
+            System.err.println("Error al resolver los escenarios: " + e.getMessage());
+        }
+    }
+
+    // Cantidad de clientes y de centros: las dos primeras líneas de la instancia
+    private static int[] leerDimensiones(Path instancia) throws IOException {
+        try (LectorEnteros lector = new LectorEnteros(instancia.toString())) {
+            int[] datos = new int[1];
+            int[] dimensiones = new int[2];
+            for (int i = 0; i < dimensiones.length; i++) {
+                lector.leerLinea(datos, 1);
+                if (datos[0] <= 0) {
+                    throw new IOException("La cantidad de " + (i == 0 ? "clientes" : "centros") + " debe ser positiva");
+                }
+                dimensiones[i] = datos[0];
+            }
+            return dimensiones;
+        }
     }
 }
\ No newline at end of file
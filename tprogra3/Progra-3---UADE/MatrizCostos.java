@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Matriz de costos [origen][destino] en un único bloque por filas. Puede vivir en el heap
+// (enMemoria) o en un archivo mapeado (mapeada/abrirMapeada), fuera del heap y sin presión
+// sobre el GC, para instancias que no entran en memoria. El optimizador la lee siempre a
+// través de esta clase, así que da lo mismo cuál se use.
+public abstract class MatrizCostos {
+    private final int filas;
+    private final int columnas;
+
+    MatrizCostos(int filas, int columnas) {
+        if (filas < 0 || columnas < 0) {
+            throw new IllegalArgumentException("Dimensiones inválidas: " + filas + "x" + columnas);
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+    }
+
+    public static MatrizCostos enMemoria(int filas, int columnas) {
+        return new MatrizCostosMemoria(filas, columnas);
+    }
+
+    // Copia una matriz [fila][columna] con todas las filas del mismo largo
+    public static MatrizCostos deMatriz(int[][] valores) {
+        int columnas = valores.length == 0 ? 0 : valores[0].length;
+        MatrizCostos matriz = enMemoria(valores.length, columnas);
+        for (int fila = 0; fila < valores.length; fila++) {
+            if (valores[fila].length != columnas) {
+                throw new IllegalArgumentException("La fila " + fila + " no tiene " + columnas + " columnas");
+            }
+            matriz.setFila(fila, valores[fila]);
+        }
+        return matriz;
+    }
+
+    // Crea (o pisa) el archivo con el formato de CacheMatrizCostos y lo mapea para lectura y
+    // escritura: lo que se escribe en la matriz queda en el archivo
+    public static MatrizCostos mapeada(Path archivo, int filas, int columnas) throws IOException {
+        return MatrizCostosMapeada.crear(archivo, filas, columnas);
+    }
+
+    // Mapea un archivo ya escrito. Los cambios con set quedan solo en memoria (copia al
+    // escribir), así que el archivo no se modifica. null si no tiene el formato esperado
+    public static MatrizCostos abrirMapeada(Path archivo) throws IOException {
+        return MatrizCostosMapeada.abrir(archivo);
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    public abstract int get(int fila, int columna);
+
+    public abstract void set(int fila, int columna, int costo);
+
+    // Copia la fila en destino
+    public void getFila(int fila, int[] destino) {
+        for (int columna = 0; columna < columnas; columna++) {
+            destino[columna] = get(fila, columna);
+        }
+    }
+
+    void setFila(int fila, int[] valores) {
+        for (int columna = 0; columna < columnas; columna++) {
+            set(fila, columna, valores[columna]);
+        }
+    }
+
+    // Llena la fila con valores[indices[c]] en cada columna c
+    void setFila(int fila, int[] valores, int[] indices) {
+        for (int columna = 0; columna < columnas; columna++) {
+            set(fila, columna, valores[indices[columna]]);
+        }
+    }
+
+    // Copia en formato [fila][columna]; en matrices grandes conviene leer con get
+    public int[][] aMatriz() {
+        int[][] matriz = new int[filas][columnas];
+        for (int fila = 0; fila < filas; fila++) {
+            getFila(fila, matriz[fila]);
+        }
+        return matriz;
+    }
+}
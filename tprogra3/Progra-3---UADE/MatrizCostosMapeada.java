@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Matriz de costos en un archivo mapeado en memoria, con el formato de CacheMatrizCostos
+// (cabecera de 4 enteros y los costos por filas, big endian). Un mapeo no puede pasar de
+// 2 GB, así que el archivo se mapea en bloques de 2^28 enteros; una celda está en
+// bloques[indice >>> BITS_BLOQUE] sin importar dónde empiece su fila.
+// Las lecturas y escrituras en celdas distintas se pueden hacer desde varios hilos.
+class MatrizCostosMapeada extends MatrizCostos {
+    static final int MAGICO = 0x4D435354; // "MCST"
+    static final int VERSION = 1;
+    static final int ENTEROS_CABECERA = 4;
+    private static final int BITS_BLOQUE = 28;
+    private static final long MASCARA_BLOQUE = (1L << BITS_BLOQUE) - 1;
+
+    private final IntBuffer[] bloques;
+
+    private MatrizCostosMapeada(int filas, int columnas, IntBuffer[] bloques) {
+        super(filas, columnas);
+        this.bloques = bloques;
+    }
+
+    static MatrizCostosMapeada crear(Path archivo, int filas, int columnas) throws IOException {
+        if (filas < 0 || columnas < 0) {
+            throw new IllegalArgumentException("Dimensiones inválidas: " + filas + "x" + columnas);
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                  StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntBuffer cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, ENTEROS_CABECERA * 4L).asIntBuffer();
+            cabecera.put(MAGICO).put(VERSION).put(filas).put(columnas);
+            return new MatrizCostosMapeada(filas, columnas,
+                mapear(canal, FileChannel.MapMode.READ_WRITE, (long) filas * columnas));
+        }
+    }
+
+    // La copia al escribir necesita abrir el archivo para escritura; si no se puede, la
+    // matriz queda de solo lectura y set lanza ReadOnlyBufferException
+    static MatrizCostosMapeada abrir(Path archivo) throws IOException {
+        boolean escribible = Files.isWritable(archivo);
+        try (FileChannel canal = escribible ? FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                                            : FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < ENTEROS_CABECERA * 4L) {
+                return null;
+            }
+            IntBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, ENTEROS_CABECERA * 4L).asIntBuffer();
+            if (cabecera.get() != MAGICO || cabecera.get() != VERSION) {
+                return null;
+            }
+            int filas = cabecera.get();
+            int columnas = cabecera.get();
+            long celdas = (long) filas * columnas;
+            if (filas < 0 || columnas < 0 || celdas * 4 != tamano - ENTEROS_CABECERA * 4L) {
+                return null;
+            }
+            FileChannel.MapMode modo = escribible ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY;
+            return new MatrizCostosMapeada(filas, columnas, mapear(canal, modo, celdas));
+        }
+    }
+
+    // El mapeo sigue valiendo después de cerrar el canal
+    private static IntBuffer[] mapear(FileChannel canal, FileChannel.MapMode modo, long celdas) throws IOException {
+        int cantidad = (int) ((celdas + MASCARA_BLOQUE) >>> BITS_BLOQUE);
+        IntBuffer[] bloques = new IntBuffer[cantidad];
+        for (int bloque = 0; bloque < cantidad; bloque++) {
+            long inicio = (long) bloque << BITS_BLOQUE;
+            long largo = Math.min(1L << BITS_BLOQUE, celdas - inicio);
+            bloques[bloque] = canal.map(modo, (ENTEROS_CABECERA + inicio) * 4, largo * 4).asIntBuffer();
+        }
+        return bloques;
+    }
+
+    @Override
+    public int get(int fila, int columna) {
+        long indice = (long) fila * getColumnas() + columna;
+        return bloques[(int) (indice >>> BITS_BLOQUE)].get((int) (indice & MASCARA_BLOQUE));
+    }
+
+    @Override
+    public void set(int fila, int columna, int costo) {
+        long indice = (long) fila * getColumnas() + columna;
+        bloques[(int) (indice >>> BITS_BLOQUE)].put((int) (indice & MASCARA_BLOQUE), costo);
+    }
+}
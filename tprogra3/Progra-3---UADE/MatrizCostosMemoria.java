@@ -0,0 +1,37 @@
+// Matriz de costos en un arreglo del heap (hasta 2^31 - 1 celdas)
+class MatrizCostosMemoria extends MatrizCostos {
+    private final int[] costos;
+
+    MatrizCostosMemoria(int filas, int columnas) {
+        super(filas, columnas);
+        this.costos = new int[Math.multiplyExact(filas, columnas)];
+    }
+
+    @Override
+    public int get(int fila, int columna) {
+        return costos[fila * getColumnas() + columna];
+    }
+
+    @Override
+    public void set(int fila, int columna, int costo) {
+        costos[fila * getColumnas() + columna] = costo;
+    }
+
+    @Override
+    public void getFila(int fila, int[] destino) {
+        System.arraycopy(costos, fila * getColumnas(), destino, 0, getColumnas());
+    }
+
+    @Override
+    void setFila(int fila, int[] valores) {
+        System.arraycopy(valores, 0, costos, fila * getColumnas(), getColumnas());
+    }
+
+    @Override
+    void setFila(int fila, int[] valores, int[] indices) {
+        int base = fila * getColumnas();
+        for (int columna = 0; columna < getColumnas(); columna++) {
+            costos[base + columna] = valores[indices[columna]];
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.*;
+
+// Resumen de una llamada al optimizador: nodos, podas por motivo, histograma de
+// profundidad, evolución del incumbente y tiempo por fase. Los hilos cuentan en su
+// propio ContadoresBusqueda y lo suman acá al terminar su parte.
+public class MetricasBusqueda {
+    public static final class Mejora {
+        public final int costo;
+        public final long nanos;   // desde el inicio de la búsqueda
+
+        Mejora(int costo, long nanos) {
+            this.costo = costo;
+            this.nanos = nanos;
+        }
+    }
+
+    private final long inicio = System.nanoTime();
+    private long nodosExpandidos;
+    private long podasCota;
+    private long podasViabilidad;
+    private long podasInalcanzable;
+    private long podasCapacidad;
+    private long podasDominancia;
+    private final long[] histogramaProfundidad;
+    private final List<Mejora> mejoras = new ArrayList<>();
+    private final Map<String, Long> nanosPorFase = new LinkedHashMap<>();
+
+    MetricasBusqueda(int profundidadMaxima) {
+        histogramaProfundidad = new long[profundidadMaxima + 1];
+    }
+
+    long nanosDesdeInicio() {
+        return System.nanoTime() - inicio;
+    }
+
+    synchronized void sumar(ContadoresBusqueda contadores) {
+        nodosExpandidos += contadores.nodos;
+        podasCota += contadores.podasCota;
+        podasViabilidad += contadores.podasViabilidad;
+        podasInalcanzable += contadores.podasInalcanzable;
+        podasCapacidad += contadores.podasCapacidad;
+        podasDominancia += contadores.podasDominancia;
+        for (int i = 0; i < histogramaProfundidad.length; i++) {
+            histogramaProfundidad[i] += contadores.nodosPorProfundidad[i];
+        }
+        contadores.reiniciar();
+    }
+
+    synchronized void registrarMejora(int costo, long nanos) {
+        mejoras.add(new Mejora(costo, nanos));
+    }
+
+    synchronized void registrarFase(String fase, long nanos) {
+        nanosPorFase.merge(fase, nanos, Long::sum);
+    }
+
+    public synchronized long getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
+    public synchronized long getPodasCota() {
+        return podasCota;
+    }
+
+    // Candidatos descartados por esCentroViable (solo en modo heurístico)
+    public synchronized long getPodasViabilidad() {
+        return podasViabilidad;
+    }
+
+    // Candidatos sin camino desde el centro al cliente
+    public synchronized long getPodasInalcanzable() {
+        return podasInalcanzable;
+    }
+
+    // Candidatos sin lugar para el cliente y nodos cuyo volumen pendiente ya no entra
+    public synchronized long getPodasCapacidad() {
+        return podasCapacidad;
+    }
+
+    // Candidatos descartados porque otro centro abierto los domina (poda exacta)
+    public synchronized long getPodasDominancia() {
+        return podasDominancia;
+    }
+
+    public synchronized long[] getHistogramaProfundidad() {
+        return histogramaProfundidad.clone();
+    }
+
+    public synchronized List<Mejora> getMejoras() {
+        List<Mejora> ordenadas = new ArrayList<>(mejoras);
+        ordenadas.sort(Comparator.comparingLong(mejora -> mejora.nanos));
+        return ordenadas;
+    }
+
+    public synchronized Map<String, Long> getNanosPorFase() {
+        return new LinkedHashMap<>(nanosPorFase);
+    }
+
+    public synchronized String aJson() {
+        StringBuilder json = new StringBuilder(256 + histogramaProfundidad.length * 8);
+        json.append("{\"nodosExpandidos\":").append(nodosExpandidos);
+        json.append(",\"podas\":{\"cota\":").append(podasCota)
+            .append(",\"viabilidad\":").append(podasViabilidad)
+            .append(",\"inalcanzable\":").append(podasInalcanzable)
+            .append(",\"capacidad\":").append(podasCapacidad)
+            .append(",\"dominancia\":").append(podasDominancia).append('}');
+
+        json.append(",\"histogramaProfundidad\":[");
+        for (int i = 0; i < histogramaProfundidad.length; i++) {
+            json.append(i == 0 ? "" : ",").append(histogramaProfundidad[i]);
+        }
+
+        json.append("],\"mejoras\":[");
+        List<Mejora> ordenadas = getMejoras();
+        for (int i = 0; i < ordenadas.size(); i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"costo\":").append(ordenadas.get(i).costo)
+                .append(",\"ms\":").append(ordenadas.get(i).nanos / 1_000_000.0).append('}');
+        }
+
+        json.append("],\"msPorFase\":{");
+        boolean primera = true;
+        for (Map.Entry<String, Long> fase : nanosPorFase.entrySet()) {
+            json.append(primera ? "" : ",")
+                .append('"').append(fase.getKey()).append("\":").append(fase.getValue() / 1_000_000.0);
+            primera = false;
+        }
+        return json.append("}}").toString();
+    }
+}
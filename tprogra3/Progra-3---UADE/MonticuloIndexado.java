@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+// Montículo binario de nodos con prioridad entera y reducción de clave.
+// Cada nodo aparece a lo sumo una vez, así que Dijkstra nunca saca entradas viejas.
+// Se reutiliza entre búsquedas: al vaciarse queda listo para la siguiente.
+class MonticuloIndexado {
+    private final int[] nodos;       // nodos[i] = nodo en la posición i del montículo
+    private final int[] posiciones;  // posiciones[nodo] = índice en nodos, -1 si no está
+    private final int[] claves;
+    private int tamano;
+
+    MonticuloIndexado(int capacidad) {
+        nodos = new int[capacidad];
+        posiciones = new int[capacidad];
+        claves = new int[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    // Inserta el nodo o, si ya estaba, baja su clave
+    void insertarOReducir(int nodo, int clave) {
+        int posicion = posiciones[nodo];
+        if (posicion == -1) {
+            posicion = tamano++;
+            nodos[posicion] = nodo;
+            posiciones[nodo] = posicion;
+        } else if (clave >= claves[nodo]) {
+            return;
+        }
+        claves[nodo] = clave;
+        subir(posicion);
+    }
+
+    // Clave del mínimo sin sacarlo; el montículo no puede estar vacío
+    int claveMinima() {
+        return claves[nodos[0]];
+    }
+
+    int extraerMinimo() {
+        int minimo = nodos[0];
+        posiciones[minimo] = -1;
+        tamano--;
+        if (tamano > 0) {
+            int ultimo = nodos[tamano];
+            nodos[0] = ultimo;
+            posiciones[ultimo] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    // Descarta lo que haya quedado (por ejemplo si la búsqueda cortó antes)
+    void vaciar() {
+        for (int i = 0; i < tamano; i++) {
+            posiciones[nodos[i]] = -1;
+        }
+        tamano = 0;
+    }
+
+    private void subir(int posicion) {
+        int nodo = nodos[posicion];
+        int clave = claves[nodo];
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            int nodoPadre = nodos[padre];
+            if (claves[nodoPadre] <= clave) {
+                break;
+            }
+            nodos[posicion] = nodoPadre;
+            posiciones[nodoPadre] = posicion;
+            posicion = padre;
+        }
+        nodos[posicion] = nodo;
+        posiciones[nodo] = posicion;
+    }
+
+    private void bajar(int posicion) {
+        int nodo = nodos[posicion];
+        int clave = claves[nodo];
+        while (true) {
+            int hijo = 2 * posicion + 1;
+            if (hijo >= tamano) {
+                break;
+            }
+            if (hijo + 1 < tamano && claves[nodos[hijo + 1]] < claves[nodos[hijo]]) {
+                hijo++;
+            }
+            int nodoHijo = nodos[hijo];
+            if (claves[nodoHijo] >= clave) {
+                break;
+            }
+            nodos[posicion] = nodoHijo;
+            posiciones[nodoHijo] = posicion;
+            posicion = hijo;
+        }
+        nodos[posicion] = nodo;
+        posiciones[nodo] = posicion;
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.Arrays;
+
+// Dijkstra sobre un GrafoLogistica que reutiliza su montículo entre llamadas.
+// Cada búsqueda solo reserva el arreglo de resultado (o ninguno si se pasa uno).
+// No es seguro entre hilos: cada hilo debe usar su propio motor.
+public class MotorDijkstra {
+    private final GrafoLogistica grafo;
+    private final MonticuloIndexado monticulo;
+
+    // Para calcularHacia (se reservan en la primera llamada). costos vuelve a quedar en
+    // INFINITO al terminar, limpiando solo los nodos visitados
+    private int[] costos;
+    private int[] visitados;
+    private int[] marcas;       // marcas[nodo] == generacion si el nodo es objetivo de la búsqueda actual
+    private int generacion;
+
+    // Predecesor de cada nodo en la última búsqueda (-1 en el origen). Solo si se pidió
+    // registrarlos: ocupa un entero por nodo y una escritura más por relajación
+    private int[] predecesores;
+    private int ultimoOrigen = -1;
+
+    public MotorDijkstra(GrafoLogistica grafo) {
+        this.grafo = grafo;
+        this.monticulo = new MonticuloIndexado(grafo.numNodos);
+    }
+
+    public void setRegistrarPredecesores(boolean registrar) {
+        if (!registrar) {
+            predecesores = null;
+        } else if (predecesores == null) {
+            predecesores = new int[grafo.numNodos];
+        }
+    }
+
+    // Nodo anterior a nodo en el camino mínimo de la última búsqueda. Solo vale para nodos
+    // que esa búsqueda alcanzó
+    public int getPredecesor(int nodo) {
+        if (predecesores == null) {
+            throw new IllegalStateException("El motor no registra predecesores");
+        }
+        return predecesores[nodo];
+    }
+
+    // Nodos del camino mínimo de la última búsqueda, del origen a destino (que tiene que
+    // haber sido alcanzado)
+    public int[] rutaHasta(int destino) {
+        int largo = 0;
+        for (int nodo = destino; nodo != -1; nodo = getPredecesor(nodo)) {
+            if (++largo > grafo.numNodos) {
+                throw new IllegalStateException("El nodo " + destino + " no se alcanzó en la última búsqueda");
+            }
+        }
+        int[] ruta = new int[largo];
+        for (int nodo = destino; nodo != -1; nodo = predecesores[nodo]) {
+            ruta[--largo] = nodo;
+        }
+        if (ruta[0] != ultimoOrigen) {
+            throw new IllegalStateException("El nodo " + destino + " no se alcanzó en la última búsqueda");
+        }
+        return ruta;
+    }
+
+    public int[] calcular(int origen) {
+        int[] costoMinimo = new int[grafo.numNodos];
+        calcular(origen, costoMinimo);
+        return costoMinimo;
+    }
+
+    // Deja en costoMinimo el costo desde origen a cada nodo (Integer.MAX_VALUE si no se llega)
+    public void calcular(int origen, int[] costoMinimo) {
+        Arrays.fill(costoMinimo, 0, grafo.numNodos, Integer.MAX_VALUE);
+        costoMinimo[origen] = 0;
+        iniciarPredecesores(origen);
+        monticulo.insertarOReducir(origen, 0);
+
+        while (!monticulo.estaVacio()) {
+            int nodo = monticulo.extraerMinimo();
+            int costoNodo = costoMinimo[nodo];
+
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                int vecino = grafo.destinoArista(arista);
+                int nuevoCosto = costoNodo + grafo.costoArista(arista);
+                if (nuevoCosto < costoMinimo[vecino]) {
+                    costoMinimo[vecino] = nuevoCosto;
+                    if (predecesores != null) {
+                        predecesores[vecino] = nodo;
+                    }
+                    monticulo.insertarOReducir(vecino, nuevoCosto);
+                }
+            }
+        }
+    }
+
+    // Deja en costoObjetivos[i] el costo desde origen hasta objetivos[i]. Corta apenas se
+    // asentaron todos los objetivos, así que en una red grande con pocos clientes recorre
+    // solo la zona que los contiene, y el trabajo no depende del tamaño del grafo.
+    // Solo ahorra si los objetivos están agrupados: con clientes repartidos al azar, como
+    // los de GeneradorInstancias, igual asienta el 90-99% de los nodos y cuesta lo mismo
+    // que calcular (dentro del ruido de RedBenchmark)
+    public void calcularHacia(int origen, int[] objetivos, int[] costoObjetivos) {
+        if (costos == null) {
+            costos = new int[grafo.numNodos];
+            visitados = new int[grafo.numNodos];
+            marcas = new int[grafo.numNodos];
+            Arrays.fill(costos, Integer.MAX_VALUE);
+        }
+        if (++generacion == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            generacion = 1;
+        }
+        int pendientes = 0;
+        for (int objetivo : objetivos) {
+            if (marcas[objetivo] != generacion) {
+                marcas[objetivo] = generacion;
+                pendientes++;
+            }
+        }
+
+        int cantidadVisitados = 0;
+        costos[origen] = 0;
+        iniciarPredecesores(origen);
+        visitados[cantidadVisitados++] = origen;
+        monticulo.insertarOReducir(origen, 0);
+        while (pendientes > 0 && !monticulo.estaVacio()) {
+            int nodo = monticulo.extraerMinimo();
+            if (marcas[nodo] == generacion) {
+                pendientes--;
+            }
+            int costoNodo = costos[nodo];
+
+            for (int arista = grafo.primeraArista(nodo), fin = grafo.finAristas(nodo); arista < fin; arista++) {
+                int vecino = grafo.destinoArista(arista);
+                int nuevoCosto = costoNodo + grafo.costoArista(arista);
+                if (nuevoCosto < costos[vecino]) {
+                    if (costos[vecino] == Integer.MAX_VALUE) {
+                        visitados[cantidadVisitados++] = vecino;
+                    }
+                    costos[vecino] = nuevoCosto;
+                    if (predecesores != null) {
+                        predecesores[vecino] = nodo;
+                    }
+                    monticulo.insertarOReducir(vecino, nuevoCosto);
+                }
+            }
+        }
+        monticulo.vaciar();
+
+        for (int i = 0; i < objetivos.length; i++) {
+            costoObjetivos[i] = costos[objetivos[i]];
+        }
+        for (int i = 0; i < cantidadVisitados; i++) {
+            costos[visitados[i]] = Integer.MAX_VALUE;
+        }
+    }
+
+    private void iniciarPredecesores(int origen) {
+        ultimoOrigen = origen;
+        if (predecesores != null) {
+            predecesores[origen] = -1;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.*;
+
+// Opciones de línea de comandos de la forma --nombre=valor, como las que reciben Main,
+// BenchmarkLogistica y VerificacionLogistica. Un argumento o un valor mal escrito es un
+// IllegalArgumentException con un mensaje para mostrarle al usuario
+final class OpcionesLinea {
+    private final Map<String, String> valores = new HashMap<>();
+
+    OpcionesLinea(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int igual = arg.indexOf('=');
+                valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+            } else {
+                throw new IllegalArgumentException("Opción inválida: " + arg);
+            }
+        }
+    }
+
+    boolean contiene(String nombre) {
+        return valores.containsKey(nombre);
+    }
+
+    String texto(String nombre, String porDefecto) {
+        return valores.getOrDefault(nombre, porDefecto);
+    }
+
+    int entero(String nombre, int porDefecto, int minimo) {
+        if (!contiene(nombre)) {
+            return porDefecto;
+        }
+        try {
+            return verificarMinimo(nombre, Integer.parseInt(valores.get(nombre)), minimo);
+        } catch (NumberFormatException e) {
+            throw valorInvalido(nombre, "un entero");
+        }
+    }
+
+    long enteroLargo(String nombre, long porDefecto) {
+        if (!contiene(nombre)) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valores.get(nombre));
+        } catch (NumberFormatException e) {
+            throw valorInvalido(nombre, "un entero");
+        }
+    }
+
+    double decimal(String nombre, double porDefecto, double minimo) {
+        if (!contiene(nombre)) {
+            return porDefecto;
+        }
+        double valor;
+        try {
+            valor = Double.parseDouble(valores.get(nombre));
+        } catch (NumberFormatException e) {
+            throw valorInvalido(nombre, "un número");
+        }
+        if (!(valor >= minimo) || Double.isInfinite(valor)) {   // también descarta NaN
+            throw valorInvalido(nombre, "un número de al menos " + minimo);
+        }
+        return valor;
+    }
+
+    // Uno de los valores del enum, sin distinguir mayúsculas
+    <E extends Enum<E>> E opcion(String nombre, Class<E> tipo, E porDefecto) {
+        if (!contiene(nombre)) {
+            return porDefecto;
+        }
+        for (E valor : tipo.getEnumConstants()) {
+            if (valor.name().equalsIgnoreCase(valores.get(nombre))) {
+                return valor;
+            }
+        }
+        StringJoiner aceptados = new StringJoiner(", ");
+        for (E valor : tipo.getEnumConstants()) {
+            aceptados.add(valor.name().toLowerCase(Locale.ROOT));
+        }
+        throw valorInvalido(nombre, "uno de " + aceptados);
+    }
+
+    private int verificarMinimo(String nombre, int valor, int minimo) {
+        if (valor < minimo) {
+            throw valorInvalido(nombre, "un entero de al menos " + minimo);
+        }
+        return valor;
+    }
+
+    private IllegalArgumentException valorInvalido(String nombre, String esperado) {
+        return new IllegalArgumentException("Valor inválido para --" + nombre + ": '" + valores.get(nombre) +
+                                            "' (se espera " + esperado + ")");
+    }
+}
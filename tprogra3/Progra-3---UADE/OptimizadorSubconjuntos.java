@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+// Resuelve el problema enumerando todos los subconjuntos de centros abiertos.
+// Con el conjunto de centros fijo, cada cliente va a su centro abierto más barato
+// sin importar los demás. Los subconjuntos se recorren en orden Gray, así de uno
+// al siguiente cambia un solo centro y el mejor centro de cada cliente se actualiza
+// en O(numClientes) sin recalcular todo: cada cliente tiene sus centros alcanzables
+// ordenados por (costo, índice) y una máscara con los que están abiertos en ese orden,
+// así que su mejor centro es el bit más bajo, también cuando se cierra el que usaba.
+class OptimizadorSubconjuntos {
+    // 2^30 subconjuntos ya es más de lo que tiene sentido recorrer
+    static final int MAX_CENTROS = 30;
+
+    private static final long SIN_COSTO = Long.MAX_VALUE;
+
+    private final InstanciaLogistica instancia;
+    private final int numClientes;
+    private final int numCentros;
+
+    // Por cliente, sus centros alcanzables de menor a mayor (costo, índice); el mismo
+    // desempate que el orden de candidatos del backtracking
+    private final int[][] centroPorRango;
+    private final int[][] costoPorRango;
+    private final int[][] rangoDeCentro;   // [cliente][centro], -1 si no lo alcanza
+    private final int[] abiertosPorRango;  // bit r: está abierto centroPorRango[cliente][r]
+
+    private final boolean[] abiertos;
+    private final int[] mejorCentro;     // centro abierto más barato de cada cliente, -1 si no tiene
+    private final long[] mejorCosto;
+    private long costoAsignaciones;      // suma de mejorCosto de los clientes con centro
+    private long costoFijos;
+    private int clientesSinCentro;
+
+    OptimizadorSubconjuntos(InstanciaLogistica instancia) {
+        this.instancia = instancia;
+        this.numClientes = instancia.getNumClientes();
+        this.numCentros = instancia.getNumCentros();
+        if (numCentros > MAX_CENTROS) {
+            throw new IllegalStateException("Demasiados centros para enumerar subconjuntos: " + numCentros +
+                                            " (máximo " + MAX_CENTROS + ")");
+        }
+        // Con capacidades, cada cliente ya no va simplemente a su centro abierto más barato
+        if (instancia.esCapacitada()) {
+            throw new IllegalStateException("La enumeración de subconjuntos no admite centros con capacidad");
+        }
+
+        this.centroPorRango = new int[numClientes][];
+        this.costoPorRango = new int[numClientes][];
+        this.rangoDeCentro = new int[numClientes][numCentros];
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            ordenarCentros(cliente);
+        }
+        this.abiertosPorRango = new int[numClientes];
+
+        this.abiertos = new boolean[numCentros];
+        this.mejorCentro = new int[numClientes];
+        this.mejorCosto = new long[numClientes];
+    }
+
+    SolucionLogistica resolver() {
+        Arrays.fill(abiertos, false);
+        Arrays.fill(abiertosPorRango, 0);
+        Arrays.fill(mejorCentro, -1);
+        Arrays.fill(mejorCosto, SIN_COSTO);
+        costoAsignaciones = 0;
+        costoFijos = 0;
+        clientesSinCentro = numClientes;
+
+        long mejorTotal = SIN_COSTO;
+        int[] mejorAsignacion = null;
+
+        long subconjuntos = 1L << numCentros;
+        for (long k = 1; k < subconjuntos; k++) {
+            // El código Gray de k difiere del de k-1 en el bit menos significativo en 1 de k
+            int centro = Long.numberOfTrailingZeros(k);
+            if (abiertos[centro]) {
+                cerrarCentro(centro);
+            } else {
+                abrirCentro(centro);
+            }
+
+            if (clientesSinCentro == 0 && costoFijos + costoAsignaciones < mejorTotal) {
+                mejorTotal = costoFijos + costoAsignaciones;
+                mejorAsignacion = mejorCentro.clone();
+            }
+        }
+
+        if (mejorAsignacion == null) {
+            throw new RuntimeException("No se encontró ninguna solución válida");
+        }
+
+        boolean[] centrosUtilizados = new boolean[numCentros];
+        for (int centro : mejorAsignacion) {
+            centrosUtilizados[centro] = true;
+        }
+        return new SolucionLogistica(mejorAsignacion, Math.toIntExact(mejorTotal), centrosUtilizados);
+    }
+
+    private void abrirCentro(int centro) {
+        abiertos[centro] = true;
+        costoFijos += instancia.getCostoFijo(centro);
+
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            int rango = rangoDeCentro[cliente][centro];
+            if (rango == -1) {
+                continue;
+            }
+            abiertosPorRango[cliente] |= 1 << rango;
+            if (Integer.numberOfTrailingZeros(abiertosPorRango[cliente]) == rango) {
+                if (mejorCentro[cliente] == -1) {
+                    clientesSinCentro--;
+                } else {
+                    costoAsignaciones -= mejorCosto[cliente];
+                }
+                costoAsignaciones += costoPorRango[cliente][rango];
+                mejorCentro[cliente] = centro;
+                mejorCosto[cliente] = costoPorRango[cliente][rango];
+            }
+        }
+    }
+
+    private void cerrarCentro(int centro) {
+        abiertos[centro] = false;
+        costoFijos -= instancia.getCostoFijo(centro);
+
+        for (int cliente = 0; cliente < numClientes; cliente++) {
+            int rango = rangoDeCentro[cliente][centro];
+            if (rango == -1) {
+                continue;
+            }
+            abiertosPorRango[cliente] &= ~(1 << rango);
+            // Solo los clientes que usaban este centro cambian: pasan al siguiente abierto
+            if (mejorCentro[cliente] != centro) {
+                continue;
+            }
+            costoAsignaciones -= mejorCosto[cliente];
+            if (abiertosPorRango[cliente] == 0) {
+                mejorCentro[cliente] = -1;
+                mejorCosto[cliente] = SIN_COSTO;
+                clientesSinCentro++;
+            } else {
+                int siguiente = Integer.numberOfTrailingZeros(abiertosPorRango[cliente]);
+                mejorCentro[cliente] = centroPorRango[cliente][siguiente];
+                mejorCosto[cliente] = costoPorRango[cliente][siguiente];
+                costoAsignaciones += mejorCosto[cliente];
+            }
+        }
+    }
+
+    // Arrays.sort de objetos es estable: ante empates de costo queda primero el menor índice
+    private void ordenarCentros(int cliente) {
+        Integer[] orden = new Integer[numCentros];
+        int alcanzables = 0;
+        for (int centro = 0; centro < numCentros; centro++) {
+            if (instancia.costoAsignacion(cliente, centro) != InstanciaLogistica.INALCANZABLE) {
+                orden[alcanzables++] = centro;
+            }
+        }
+        Arrays.sort(orden, 0, alcanzables,
+                    (a, b) -> Integer.compare(instancia.costoAsignacion(cliente, a), instancia.costoAsignacion(cliente, b)));
+
+        centroPorRango[cliente] = new int[alcanzables];
+        costoPorRango[cliente] = new int[alcanzables];
+        Arrays.fill(rangoDeCentro[cliente], -1);
+        for (int rango = 0; rango < alcanzables; rango++) {
+            centroPorRango[cliente][rango] = orden[rango];
+            costoPorRango[cliente][rango] = instancia.costoAsignacion(cliente, orden[rango]);
+            rangoDeCentro[cliente][orden[rango]] = rango;
+        }
+    }
+}
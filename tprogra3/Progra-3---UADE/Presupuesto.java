@@ -0,0 +1,48 @@
+import java.time.Duration;
+
+// Límite de tiempo y/o de nodos para una búsqueda. Al agotarse, el optimizador
+// devuelve la mejor solución encontrada hasta ese momento. Los nodos que se cuentan
+// son los expandidos y se controlan de a bloques, así que el corte no es exacto.
+public final class Presupuesto {
+    private static final Presupuesto SIN_LIMITE = new Presupuesto(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long nanos;
+    private final long nodos;
+
+    private Presupuesto(long nanos, long nodos) {
+        if (nanos <= 0 || nodos <= 0) {
+            throw new IllegalArgumentException("El presupuesto debe ser positivo");
+        }
+        this.nanos = nanos;
+        this.nodos = nodos;
+    }
+
+    public static Presupuesto sinLimite() {
+        return SIN_LIMITE;
+    }
+
+    public static Presupuesto tiempo(Duration tiempo) {
+        return new Presupuesto(tiempo.toNanos(), Long.MAX_VALUE);
+    }
+
+    public static Presupuesto nodos(long nodos) {
+        return new Presupuesto(Long.MAX_VALUE, nodos);
+    }
+
+    // Lo que se agote primero
+    public static Presupuesto de(Duration tiempo, long nodos) {
+        return new Presupuesto(tiempo.toNanos(), nodos);
+    }
+
+    public boolean tieneLimite() {
+        return nanos != Long.MAX_VALUE || nodos != Long.MAX_VALUE;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+
+    long getNodos() {
+        return nodos;
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+// Caminos de la red detrás de cada asignación de una solución. Por cada centro abierto se
+// corre un Dijkstra con predecesores hacia sus clientes y se guarda solo el árbol de
+// caminos que los une: sus nodos y, por cada uno, la posición de su padre. Los tramos
+// compartidos por varios clientes se guardan una vez y los centros cerrados no ocupan nada.
+public class RutasSolucion {
+    private final int[] centroDeCliente;
+    private final int[] costoRuta;          // por cliente, Integer.MAX_VALUE si no se llega
+    private final int[] posicionCliente;    // por cliente: su nodo en el árbol de su centro, -1 si no se llega
+    private final int[][] nodosArbol;       // por centro: nodos del árbol (null si no se abrió)
+    private final int[][] padresArbol;      // por centro: posición del padre de cada nodo, -1 en el centro
+
+    private RutasSolucion(int numClientes, int numCentros) {
+        centroDeCliente = new int[numClientes];
+        costoRuta = new int[numClientes];
+        posicionCliente = new int[numClientes];
+        nodosArbol = new int[numCentros][];
+        padresArbol = new int[numCentros][];
+    }
+
+    // nodosCentros[c] y nodosClientes[k] son los nodos del grafo de cada centro y cliente,
+    // como en CostMatrixBuilder
+    public static RutasSolucion reconstruir(GrafoLogistica grafo, int[] nodosCentros, int[] nodosClientes,
+                                            SolucionLogistica solucion) {
+        int[] asignacion = solucion.getAsignacionClientes();
+        if (asignacion.length != nodosClientes.length) {
+            throw new IllegalArgumentException("La solución tiene " + asignacion.length + " clientes y se pasaron " +
+                                               nodosClientes.length + " nodos");
+        }
+        RutasSolucion rutas = new RutasSolucion(nodosClientes.length, nodosCentros.length);
+        System.arraycopy(asignacion, 0, rutas.centroDeCliente, 0, asignacion.length);
+        Arrays.fill(rutas.costoRuta, Integer.MAX_VALUE);
+        Arrays.fill(rutas.posicionCliente, -1);
+
+        // Clientes agrupados por centro (counting sort), para un solo Dijkstra por centro
+        int[] inicio = new int[nodosCentros.length + 1];
+        for (int centro : asignacion) {
+            if (centro != -1) {
+                inicio[Objects.checkIndex(centro, nodosCentros.length) + 1]++;
+            }
+        }
+        for (int centro = 0; centro < nodosCentros.length; centro++) {
+            inicio[centro + 1] += inicio[centro];
+        }
+        int[] clientes = new int[inicio[nodosCentros.length]];
+        int[] siguiente = Arrays.copyOf(inicio, nodosCentros.length);
+        for (int cliente = 0; cliente < asignacion.length; cliente++) {
+            if (asignacion[cliente] != -1) {
+                clientes[siguiente[asignacion[cliente]]++] = cliente;
+            }
+        }
+
+        MotorDijkstra motor = new MotorDijkstra(grafo);
+        motor.setRegistrarPredecesores(true);
+        int[] posicion = new int[grafo.numNodos];   // posición de cada nodo en el árbol actual
+        Arrays.fill(posicion, -1);
+        for (int centro = 0; centro < nodosCentros.length; centro++) {
+            int cantidad = inicio[centro + 1] - inicio[centro];
+            if (cantidad > 0) {
+                rutas.construirArbol(motor, posicion, centro, nodosCentros[centro], nodosClientes,
+                                     Arrays.copyOfRange(clientes, inicio[centro], inicio[centro + 1]));
+            }
+        }
+        return rutas;
+    }
+
+    private void construirArbol(MotorDijkstra motor, int[] posicion, int centro, int nodoCentro,
+                                int[] nodosClientes, int[] clientes) {
+        int[] objetivos = new int[clientes.length];
+        for (int i = 0; i < clientes.length; i++) {
+            objetivos[i] = nodosClientes[clientes[i]];
+        }
+        int[] costos = new int[clientes.length];
+        motor.calcularHacia(nodoCentro, objetivos, costos);
+
+        int[] nodos = new int[Math.max(16, clientes.length * 4)];
+        int[] padres = new int[nodos.length];
+        int cantidad = 0;
+        int[] pila = new int[16];
+        for (int i = 0; i < clientes.length; i++) {
+            costoRuta[clientes[i]] = costos[i];
+            if (costos[i] == Integer.MAX_VALUE) {
+                continue;
+            }
+            // Se sube hasta el primer nodo que ya está en el árbol (o más allá del centro)
+            int tope = 0;
+            int nodo = objetivos[i];
+            while (nodo != -1 && posicion[nodo] == -1) {
+                if (tope == pila.length) {
+                    pila = Arrays.copyOf(pila, tope * 2);
+                }
+                pila[tope++] = nodo;
+                nodo = motor.getPredecesor(nodo);
+            }
+            int padre = nodo == -1 ? -1 : posicion[nodo];
+            if (cantidad + tope > nodos.length) {
+                int largo = Math.max(nodos.length * 2, cantidad + tope);
+                nodos = Arrays.copyOf(nodos, largo);
+                padres = Arrays.copyOf(padres, largo);
+            }
+            while (tope > 0) {
+                int agregado = pila[--tope];
+                nodos[cantidad] = agregado;
+                padres[cantidad] = padre;
+                posicion[agregado] = cantidad;
+                padre = cantidad++;
+            }
+            posicionCliente[clientes[i]] = posicion[objetivos[i]];
+        }
+
+        for (int i = 0; i < cantidad; i++) {
+            posicion[nodos[i]] = -1;
+        }
+        nodosArbol[centro] = Arrays.copyOf(nodos, cantidad);
+        padresArbol[centro] = Arrays.copyOf(padres, cantidad);
+    }
+
+    public int getNumClientes() {
+        return centroDeCliente.length;
+    }
+
+    public int getCentro(int cliente) {
+        return centroDeCliente[cliente];
+    }
+
+    // Integer.MAX_VALUE si el cliente no tiene centro o su centro no lo alcanza
+    public int getCostoRuta(int cliente) {
+        return costoRuta[cliente];
+    }
+
+    // Cantidad de nodos de la ruta, contando el centro y el cliente (0 si no hay ruta)
+    public int getLargoRuta(int cliente) {
+        int largo = 0;
+        int[] padres = posicionCliente[cliente] == -1 ? null : padresArbol[centroDeCliente[cliente]];
+        for (int i = posicionCliente[cliente]; i != -1; i = padres[i]) {
+            largo++;
+        }
+        return largo;
+    }
+
+    // Deja la ruta del centro al cliente en destino (de al menos getLargoRuta lugares) y
+    // devuelve su largo
+    public int getRuta(int cliente, int[] destino) {
+        int largo = getLargoRuta(cliente);
+        if (largo == 0) {
+            return 0;
+        }
+        int[] nodos = nodosArbol[centroDeCliente[cliente]];
+        int[] padres = padresArbol[centroDeCliente[cliente]];
+        int escritos = largo;
+        for (int i = posicionCliente[cliente]; i != -1; i = padres[i]) {
+            destino[--escritos] = nodos[i];
+        }
+        return largo;
+    }
+
+    public int[] getRuta(int cliente) {
+        int[] ruta = new int[getLargoRuta(cliente)];
+        getRuta(cliente, ruta);
+        return ruta;
+    }
+}
@@ -0,0 +1,203 @@
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Resuelve muchos escenarios (archivos clientesYCentros con otras demandas, costos o
+// capacidades) sobre la misma red. La matriz de costos se calcula una sola vez y todos
+// los optimizadores la comparten sin copiarla: ninguno la modifica.
+//
+// Cada escenario es una tarea; las tareas corren en hilos virtuales si la JVM los tiene
+// (si no, en un pool fijo) y un semáforo limita cuántas resuelven a la vez. Cada
+// escenario se optimiza en un solo hilo: repartir escenarios aprovecha mejor los núcleos
+// que paralelizar cada árbol. Los resultados se escriben a medida que terminan, en el
+// orden en que terminan.
+public class ServicioEscenarios {
+    public enum Formato {
+        CSV,
+        JSON   // un objeto por línea (JSON Lines)
+    }
+
+    private static final String CABECERA_CSV = "escenario,estado,costo,cotaInferior,brecha,centros,asignacion,nodos,ms,error";
+
+    private final MatrizCostos costos;   // [centro][cliente], compartida entre escenarios
+    private final int concurrencia;
+    private Presupuesto presupuesto = Presupuesto.sinLimite();
+
+    public ServicioEscenarios(MatrizCostos costos) {
+        this(costos, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ServicioEscenarios(MatrizCostos costos, int concurrencia) {
+        if (concurrencia < 1) {
+            throw new IllegalArgumentException("La concurrencia debe ser al menos 1");
+        }
+        this.costos = Objects.requireNonNull(costos);
+        this.concurrencia = concurrencia;
+    }
+
+    // Con límite, cada escenario se resuelve en modo anytime y el resultado informa su brecha
+    public void setPresupuesto(Presupuesto presupuesto) {
+        this.presupuesto = Objects.requireNonNull(presupuesto);
+    }
+
+    // Un directorio (todos sus .txt, por nombre) o un manifiesto con una ruta por línea.
+    // Las rutas del manifiesto son relativas a su directorio; '#' empieza un comentario
+    public static List<Path> listarEscenarios(Path origen) throws IOException {
+        if (Files.isDirectory(origen)) {
+            try (Stream<Path> archivos = Files.list(origen)) {
+                return archivos.filter(archivo -> archivo.getFileName().toString().endsWith(".txt"))
+                               .sorted()
+                               .collect(Collectors.toList());
+            }
+        }
+        List<Path> escenarios = new ArrayList<>();
+        Path base = origen.toAbsolutePath().getParent();
+        for (String linea : Files.readAllLines(origen)) {
+            int comentario = linea.indexOf('#');
+            String ruta = (comentario == -1 ? linea : linea.substring(0, comentario)).trim();
+            if (!ruta.isEmpty()) {
+                escenarios.add(base.resolve(ruta));
+            }
+        }
+        return escenarios;
+    }
+
+    // Escribe un registro por escenario en salida. Devuelve cuántos escenarios fallaron
+    // (archivo inválido, dimensiones que no coinciden con la matriz, sin solución factible)
+    public int resolver(List<Path> escenarios, Writer salida, Formato formato) throws IOException {
+        BufferedWriter escritor = new BufferedWriter(salida, 1 << 16);
+        if (formato == Formato.CSV) {
+            escritor.write(CABECERA_CSV);
+            escritor.newLine();
+        }
+
+        Semaphore permisos = new Semaphore(concurrencia);
+        ExecutorService hilos = crearEjecutor(concurrencia);
+        List<Future<Boolean>> tareas = new ArrayList<>(escenarios.size());
+        try {
+            for (Path escenario : escenarios) {
+                tareas.add(hilos.submit(() -> {
+                    permisos.acquire();
+                    String registro;
+                    boolean resuelto;
+                    try {
+                        long inicio = System.nanoTime();
+                        DistributionCenterOptimization optimizador = new DistributionCenterOptimization();
+                        optimizador.setSilencioso(true);   // los mensajes de varios hilos se mezclarían
+                        try {
+                            optimizador.inicializar(escenario.toString(), costos);
+                            SolucionLogistica solucion = optimizador.optimizar(presupuesto);
+                            registro = formatear(formato, escenario, solucion, optimizador.getNodosExplorados(),
+                                                 System.nanoTime() - inicio);
+                            resuelto = true;
+                        } catch (IOException | RuntimeException e) {
+                            registro = formatearError(formato, escenario, e.getMessage(), System.nanoTime() - inicio);
+                            resuelto = false;
+                        }
+                    } finally {
+                        permisos.release();
+                    }
+                    // Se vacía en cada registro: si el lote se corta, lo ya resuelto queda escrito
+                    synchronized (escritor) {
+                        escritor.write(registro);
+                        escritor.newLine();
+                        escritor.flush();
+                    }
+                    return resuelto;
+                }));
+            }
+
+            int fallidos = 0;
+            for (Future<Boolean> tarea : tareas) {
+                if (!tarea.get()) {
+                    fallidos++;
+                }
+            }
+            return fallidos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tareas.forEach(tarea -> tarea.cancel(true));
+            throw new InterruptedIOException("Lote de escenarios interrumpido");
+        } catch (ExecutionException e) {
+            tareas.forEach(tarea -> tarea.cancel(true));
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Error al resolver escenarios: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            hilos.shutdown();
+            escritor.flush();
+        }
+    }
+
+    // Los hilos virtuales (Java 21) se buscan por reflexión para seguir compilando con JDKs
+    // anteriores. La cantidad de escenarios simultáneos la limita el semáforo, no el ejecutor
+    private static ExecutorService crearEjecutor(int concurrencia) {
+        try {
+            Method virtuales = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuales.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrencia);
+        }
+    }
+
+    private static String formatear(Formato formato, Path escenario, SolucionLogistica solucion, long nodos, long nanos) {
+        StringBuilder centros = new StringBuilder();
+        for (int centro = 0; centro < solucion.getCentrosUtilizados().length; centro++) {
+            if (solucion.isCentroUtilizado(centro)) {
+                centros.append(centros.length() == 0 ? "" : formato == Formato.CSV ? " " : ",").append(centro);
+            }
+        }
+        StringBuilder asignacion = new StringBuilder();
+        int[] clientes = solucion.getAsignacionClientes();
+        for (int cliente = 0; cliente < clientes.length; cliente++) {
+            asignacion.append(cliente == 0 ? "" : formato == Formato.CSV ? " " : ",").append(clientes[cliente]);
+        }
+        String estado = solucion.esOptima() ? "optima" : "factible";
+
+        if (formato == Formato.CSV) {
+            return campoCsv(escenario.toString()) + ',' + estado + ',' + solucion.getCostoTotal() + ',' +
+                   solucion.getCotaInferior() + ',' + solucion.getBrechaOptimalidad() + ',' + centros + ',' +
+                   asignacion + ',' + nodos + ',' + nanos / 1_000_000.0 + ',';
+        }
+        return "{\"escenario\":" + textoJson(escenario.toString()) + ",\"estado\":\"" + estado + '"' +
+               ",\"costo\":" + solucion.getCostoTotal() + ",\"cotaInferior\":" + solucion.getCotaInferior() +
+               ",\"brecha\":" + solucion.getBrechaOptimalidad() + ",\"centros\":[" + centros + ']' +
+               ",\"asignacion\":[" + asignacion + "],\"nodos\":" + nodos + ",\"ms\":" + nanos / 1_000_000.0 + '}';
+    }
+
+    private static String formatearError(Formato formato, Path escenario, String mensaje, long nanos) {
+        String detalle = mensaje == null ? "error desconocido" : mensaje;
+        if (formato == Formato.CSV) {
+            return campoCsv(escenario.toString()) + ",error,,,,,,," + nanos / 1_000_000.0 + ',' + campoCsv(detalle);
+        }
+        return "{\"escenario\":" + textoJson(escenario.toString()) + ",\"estado\":\"error\",\"error\":" +
+               textoJson(detalle) + ",\"ms\":" + nanos / 1_000_000.0 + '}';
+    }
+
+    private static String campoCsv(String texto) {
+        if (texto.indexOf(',') == -1 && texto.indexOf('"') == -1 && texto.indexOf('\n') == -1) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    private static String textoJson(String texto) {
+        StringBuilder json = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
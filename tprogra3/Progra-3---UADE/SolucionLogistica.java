@@ -0,0 +1,51 @@
+class SolucionLogistica {
+    private final int[] asignacionClientes;
+    private final int costoTotal;
+    private final boolean[] centrosUtilizados;
+    private final int cotaInferior;
+
+    public SolucionLogistica(int[] asignacionClientes, int costoTotal, boolean[] centrosUtilizados) {
+        this(asignacionClientes, costoTotal, centrosUtilizados, costoTotal);
+    }
+
+    // cotaInferior: costo por debajo del cual se demostró que no hay soluciones
+    public SolucionLogistica(int[] asignacionClientes, int costoTotal, boolean[] centrosUtilizados, int cotaInferior) {
+        this.asignacionClientes = asignacionClientes;
+        this.costoTotal = costoTotal;
+        this.centrosUtilizados = centrosUtilizados;
+        this.cotaInferior = cotaInferior;
+    }
+
+    public int[] getAsignacionClientes() {
+        return asignacionClientes;
+    }
+
+    public int getCostoTotal() {
+        return costoTotal;
+    }
+
+    public boolean[] getCentrosUtilizados() {
+        return centrosUtilizados;
+    }
+
+    public int getCentroAsignadoCliente(int cliente) {
+        return asignacionClientes[cliente];
+    }
+
+    public boolean isCentroUtilizado(int centro) {
+        return centrosUtilizados[centro];
+    }
+
+    public int getCotaInferior() {
+        return cotaInferior;
+    }
+
+    // (costo - cota) / costo: 0 si la solución es óptima
+    public double getBrechaOptimalidad() {
+        return costoTotal == 0 ? 0 : (double) (costoTotal - cotaInferior) / costoTotal;
+    }
+
+    public boolean esOptima() {
+        return cotaInferior >= costoTotal;
+    }
+}
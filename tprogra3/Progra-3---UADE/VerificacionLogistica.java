@@ -0,0 +1,172 @@
+import java.util.*;
+
+// Compara las estructuras incrementales y de preprocesamiento con el cálculo directo
+// (CostMatrixBuilder) sobre grafos aleatorios con rutas de costo 0, rutas paralelas y
+// destinos repetidos. Imprime cada diferencia y termina con código 1 si hubo alguna.
+//
+// Uso: java VerificacionLogistica [--grafos=G] [--semilla=S]
+public class VerificacionLogistica {
+    private final Random random;
+    private int fallas;
+
+    private VerificacionLogistica(long semilla) {
+        this.random = new Random(semilla);
+    }
+
+    public static void main(String[] args) {
+        int grafos;
+        VerificacionLogistica verificacion;
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args);
+            grafos = opciones.entero("grafos", 30, 1);
+            verificacion = new VerificacionLogistica(opciones.enteroLargo("semilla", 42));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        System.out.println("DistanciasDinamicas: " + verificacion.verificarDistanciasDinamicas(grafos) +
+                           " actualizaciones verificadas");
+        System.out.println("JerarquiaContracciones: " + verificacion.verificarJerarquia(grafos) +
+                           " distancias verificadas");
+        if (verificacion.fallas > 0) {
+            System.out.println(verificacion.fallas + " diferencias");
+            System.exit(1);
+        }
+        System.out.println("Sin diferencias");
+    }
+
+    // Después de cada cambio de ruta, la matriz reparada y la que se arma aplicando los
+    // cambios informados tienen que coincidir con la recalculada desde cero
+    private int verificarDistanciasDinamicas(int grafos) {
+        int actualizaciones = 0;
+        for (int prueba = 0; prueba < grafos; prueba++) {
+            int numNodos = 200 + random.nextInt(300);
+            GrafoLogistica grafo = grafoAleatorio(numNodos);
+            int[] origenes = nodosAleatorios(5, numNodos);
+            int[] destinos = nodosAleatorios(40, numNodos);
+            DistanciasDinamicas dinamicas = new DistanciasDinamicas(grafo, origenes, destinos);
+            int[][] informada = dinamicas.getMatriz().aMatriz();
+
+            for (int cambio = 0; cambio < 60; cambio++) {
+                int origen = random.nextInt(numNodos);
+                int destino = random.nextInt(numNodos);
+                if (random.nextBoolean() && grafo.finAristas(origen) > grafo.primeraArista(origen)) {
+                    // Una ruta existente, para que también se encarezcan caminos mínimos
+                    int aristas = grafo.finAristas(origen) - grafo.primeraArista(origen);
+                    destino = grafo.destinoArista(grafo.primeraArista(origen) + random.nextInt(aristas));
+                }
+                dinamicas.actualizarRuta(origen, destino, random.nextInt(60),
+                                         (fila, columna, costo) -> informada[fila][columna] = costo);
+                actualizaciones++;
+
+                int[][] esperada = new CostMatrixBuilder(grafo, origenes, destinos).construir().aMatriz();
+                if (!Arrays.deepEquals(esperada, dinamicas.getMatriz().aMatriz())) {
+                    falla("DistanciasDinamicas: grafo " + prueba + ", cambio " + cambio + ": matriz distinta");
+                } else if (!Arrays.deepEquals(esperada, informada)) {
+                    falla("DistanciasDinamicas: grafo " + prueba + ", cambio " + cambio + ": cambios sin informar");
+                }
+            }
+        }
+        return actualizaciones;
+    }
+
+    // La matriz y las consultas punto a punto de la jerarquía, y la matriz de
+    // CostMatrixBuilder (que corta cada Dijkstra al llegar a los destinos), contra un
+    // Dijkstra completo por origen. Se alternan grafos aleatorios y grillas, que tienen
+    // muchos caminos mínimos empatados
+    private int verificarJerarquia(int grafos) {
+        int distancias = 0;
+        for (int prueba = 0; prueba < grafos; prueba++) {
+            int numNodos;
+            GrafoLogistica grafo;
+            if (prueba % 2 == 0) {
+                numNodos = 200 + random.nextInt(800);
+                grafo = grafoAleatorio(numNodos);
+            } else {
+                int lado = 10 + random.nextInt(20);
+                numNodos = lado * lado;
+                grafo = grillaAleatoria(lado);
+            }
+            int[] origenes = nodosAleatorios(8, numNodos);
+            int[] destinos = nodosAleatorios(40, numNodos);
+
+            MotorDijkstra motor = new MotorDijkstra(grafo);
+            int[][] esperada = new int[origenes.length][destinos.length];
+            for (int fila = 0; fila < origenes.length; fila++) {
+                int[] costos = motor.calcular(origenes[fila]);
+                for (int columna = 0; columna < destinos.length; columna++) {
+                    esperada[fila][columna] = costos[destinos[columna]];
+                }
+            }
+            if (!Arrays.deepEquals(esperada, new CostMatrixBuilder(grafo, origenes, destinos).construir().aMatriz())) {
+                falla("CostMatrixBuilder: grafo " + prueba + ": matriz distinta");
+            }
+
+            JerarquiaContracciones jerarquia = grafo.construirJerarquia();
+            if (!Arrays.deepEquals(esperada, jerarquia.calcularMatriz(origenes, destinos).aMatriz())) {
+                falla("JerarquiaContracciones: grafo " + prueba + ": calcularMatriz distinta");
+            }
+            for (int fila = 0; fila < origenes.length; fila++) {
+                for (int columna = 0; columna < destinos.length; columna++) {
+                    int costo = jerarquia.distancia(origenes[fila], destinos[columna]);
+                    if (costo != esperada[fila][columna]) {
+                        falla("JerarquiaContracciones: grafo " + prueba + ": distancia(" + origenes[fila] + ", " +
+                              destinos[columna] + ") = " + costo + ", se esperaba " + esperada[fila][columna]);
+                    }
+                    distancias++;
+                }
+            }
+        }
+        return distancias;
+    }
+
+    // Grilla con rutas en ambos sentidos entre vecinos, de costos 0 a 9 (muchos empates)
+    private GrafoLogistica grillaAleatoria(int lado) {
+        GrafoLogistica.Constructor grafo = new GrafoLogistica.Constructor(lado * lado);
+        for (int fila = 0; fila < lado; fila++) {
+            for (int columna = 0; columna < lado; columna++) {
+                int nodo = fila * lado + columna;
+                if (columna + 1 < lado) {
+                    grafo.agregarRuta(nodo, nodo + 1, random.nextInt(10));
+                    grafo.agregarRuta(nodo + 1, nodo, random.nextInt(10));
+                }
+                if (fila + 1 < lado) {
+                    grafo.agregarRuta(nodo, nodo + lado, random.nextInt(10));
+                    grafo.agregarRuta(nodo + lado, nodo, random.nextInt(10));
+                }
+            }
+        }
+        return grafo.construir();
+    }
+
+    // Unas 3 rutas por nodo, una de cada cuatro de costo 0 y algunas repetidas entre el mismo par
+    private GrafoLogistica grafoAleatorio(int numNodos) {
+        GrafoLogistica.Constructor grafo = new GrafoLogistica.Constructor(numNodos);
+        for (int ruta = 0; ruta < numNodos * 3; ruta++) {
+            int origen = random.nextInt(numNodos);
+            int destino = random.nextInt(numNodos);
+            grafo.agregarRuta(origen, destino, random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(30));
+            if (random.nextInt(10) == 0) {
+                grafo.agregarRuta(origen, destino, random.nextInt(30));
+            }
+        }
+        return grafo.construir();
+    }
+
+    // Con repetidos a propósito: un nodo puede ser destino de varias columnas
+    private int[] nodosAleatorios(int cantidad, int numNodos) {
+        int[] nodos = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            nodos[i] = i > 0 && random.nextInt(8) == 0 ? nodos[random.nextInt(i)] : random.nextInt(numNodos);
+        }
+        return nodos;
+    }
+
+    private void falla(String mensaje) {
+        fallas++;
+        if (fallas <= 20) {
+            System.out.println(mensaje);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.nio.file.*;
+
+import benchmarks.EtapasLogistica;
+
+// Implementación de EtapasLogistica sobre las clases del proyecto (ver EtapasLogistica).
+// El grafo y el optimizador se usan en modo silencioso, así no escriben en la consola de JMH
+public class AdaptadorLogistica implements EtapasLogistica {
+    private int nodos;
+    private Path directorio;
+    private Path rutas;
+    private Path clientesYCentros;
+    private int numCentros;
+
+    private GrafoLogistica grafo;
+    private MotorDijkstra motor;
+    private int[] distancias;
+    private int[] centros;
+    private int[] clientes;
+    private int[] costosClientes;
+    private CostMatrixBuilder constructor;
+    private DistributionCenterOptimization optimizador;
+    private String variante;
+
+    @Override
+    public void preparar(int nodos, double densidad, int numClientes, int numCentros, long semilla, String variante)
+            throws IOException {
+        this.nodos = nodos;
+        this.variante = variante;
+        this.numCentros = numCentros;
+        GeneradorInstancias generador = new GeneradorInstancias(nodos, densidad, numClientes, numCentros, semilla);
+        directorio = Files.createTempDirectory("benchmark-logistica");
+        rutas = directorio.resolve("rutas.txt");
+        clientesYCentros = directorio.resolve("clientesYCentros.txt");
+        generador.escribirRutas(rutas);
+        generador.escribirClientesYCentros(clientesYCentros);
+
+        grafo = new GrafoLogistica(nodos);
+        grafo.setSilencioso(true);
+        grafo.cargarRutas(rutas.toString());
+        motor = new MotorDijkstra(grafo);
+        distancias = new int[nodos];
+        centros = generador.getCentros();
+        clientes = generador.getClientes();
+        costosClientes = new int[clientes.length];
+        constructor = new CostMatrixBuilder(grafo, centros, clientes);
+
+        optimizador = new DistributionCenterOptimization();
+        optimizador.setSilencioso(true);
+        optimizador.setModoHeuristico("heuristico".equals(variante));
+        optimizador.inicializar(clientesYCentros.toString(), constructor.construir());
+    }
+
+    @Override
+    public void cerrar() throws IOException {
+        Files.deleteIfExists(rutas);
+        Files.deleteIfExists(clientesYCentros);
+        Files.deleteIfExists(directorio);
+    }
+
+    @Override
+    public int cargarRutas() {
+        GrafoLogistica nuevo = new GrafoLogistica(nodos);
+        nuevo.setSilencioso(true);
+        nuevo.cargarRutas(rutas.toString());
+        return nuevo.getNumRutas();
+    }
+
+    @Override
+    public long dijkstra() {
+        long suma = 0;
+        for (int centro : centros) {
+            motor.calcular(centro, distancias);
+            suma += distancias[clientes[0]];
+        }
+        return suma;
+    }
+
+    @Override
+    public long dijkstraHacia() {
+        long suma = 0;
+        for (int centro : centros) {
+            motor.calcularHacia(centro, clientes, costosClientes);
+            suma += costosClientes[0];
+        }
+        return suma;
+    }
+
+    @Override
+    public Object matrizCostos() {
+        return constructor.construir();
+    }
+
+    @Override
+    public long optimizar() {
+        switch (variante) {
+            case "secuencial":
+            case "heuristico":
+                optimizador.optimizar();
+                return optimizador.getNodosExplorados();
+            case "paralelo":
+                optimizador.optimizarParalelo();
+                return optimizador.getNodosExplorados();
+            case "subconjuntos":
+                optimizador.optimizarPorSubconjuntos();
+                return (1L << numCentros) - 1;   // recorre todos los subconjuntos no vacíos
+            default:
+                throw new IllegalArgumentException("Variante desconocida: " + variante);
+        }
+    }
+}
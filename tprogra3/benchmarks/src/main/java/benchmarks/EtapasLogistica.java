@@ -0,0 +1,37 @@
+package benchmarks;
+
+import java.io.IOException;
+
+// Etapas que miden los benchmarks. Las clases del proyecto están en el paquete por defecto:
+// JMH no acepta benchmarks ahí y desde un paquete con nombre no se pueden importar. Por eso
+// los benchmarks llaman a esta interfaz, que implementa AdaptadorLogistica en el paquete por
+// defecto; se crea por reflexión una vez por corrida y las llamadas medidas son directas
+public interface EtapasLogistica {
+    static EtapasLogistica crear() throws ReflectiveOperationException {
+        return (EtapasLogistica) Class.forName("AdaptadorLogistica").getDeclaredConstructor().newInstance();
+    }
+
+    // Genera una instancia con GeneradorInstancias, carga el grafo, calcula la matriz de costos
+    // e inicializa el optimizador. Variantes: secuencial, paralelo, heuristico, subconjuntos
+    void preparar(int nodos, double densidad, int clientes, int centros, long semilla, String variante)
+        throws IOException;
+
+    // Borra los archivos de la instancia
+    void cerrar() throws IOException;
+
+    // Carga el archivo de rutas en un grafo nuevo; devuelve la cantidad de rutas
+    int cargarRutas();
+
+    // Un Dijkstra completo desde cada centro; devuelve una suma de control de las distancias
+    long dijkstra();
+
+    // Dijkstra desde cada centro que termina al alcanzar todos los clientes
+    long dijkstraHacia();
+
+    // Matriz [centro][cliente] con CostMatrixBuilder
+    Object matrizCostos();
+
+    // Corre la variante elegida en preparar; devuelve los nodos explorados. En subconjuntos,
+    // que no recorre un árbol, cada subconjunto de centros evaluado cuenta como un nodo
+    long optimizar();
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Variantes del optimizador sobre la matriz de una instancia de GeneradorInstancias.
+// Se mide en operaciones por segundo para que nodos, los nodos explorados, salga en nodos
+// por segundo como en BenchmarkLogistica (JMH informa los contadores como tasas).
+// subconjuntos solo admite hasta 30 centros sin capacidad (OptimizadorSubconjuntos)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizadorBenchmark {
+    @Param("20000")
+    public int nodos;
+
+    @Param("6")
+    public double densidad;
+
+    @Param("30")
+    public int clientes;
+
+    @Param("8")
+    public int centros;
+
+    @Param("42")
+    public long semilla;
+
+    @Param({"secuencial", "paralelo", "heuristico", "subconjuntos"})
+    public String variante;
+
+    private EtapasLogistica etapas;
+
+    // Cada campo público es un contador más en el resultado
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodos {
+        public long nodos;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            nodos = 0;
+        }
+    }
+
+    @Setup
+    public void preparar() throws IOException, ReflectiveOperationException {
+        etapas = EtapasLogistica.crear();
+        etapas.preparar(nodos, densidad, clientes, centros, semilla, variante);
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        etapas.cerrar();
+    }
+
+    @Benchmark
+    public void optimizar(Nodos contador) {
+        contador.nodos += etapas.optimizar();
+    }
+}
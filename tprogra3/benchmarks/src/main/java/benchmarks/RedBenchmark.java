@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Carga de rutas, Dijkstra y matriz de costos sobre una instancia de GeneradorInstancias.
+// Cada llamada a dijkstra y dijkstraHacia hace un Dijkstra por centro
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedBenchmark {
+    @Param("20000")
+    public int nodos;
+
+    @Param("6")
+    public double densidad;
+
+    @Param("30")
+    public int clientes;
+
+    @Param("8")
+    public int centros;
+
+    @Param("42")
+    public long semilla;
+
+    private EtapasLogistica etapas;
+
+    @Setup
+    public void preparar() throws IOException, ReflectiveOperationException {
+        etapas = EtapasLogistica.crear();
+        etapas.preparar(nodos, densidad, clientes, centros, semilla, "secuencial");
+    }
+
+    @TearDown
+    public void cerrar() throws IOException {
+        etapas.cerrar();
+    }
+
+    @Benchmark
+    public int cargarRutas() {
+        return etapas.cargarRutas();
+    }
+
+    @Benchmark
+    public long dijkstra() {
+        return etapas.dijkstra();
+    }
+
+    @Benchmark
+    public long dijkstraHacia() {
+        return etapas.dijkstraHacia();
+    }
+
+    @Benchmark
+    public Object matrizCostos() {
+        return etapas.matrizCostos();
+    }
+}